@@ -0,0 +1,39 @@
+package com.simulator.benchmarks;
+
+/**
+ * Sample rates shared by the suites: {@code <platform>_USD<quote>} pairs with fixed, distinct prices.
+ */
+public final class BenchData {
+
+    /** Fork argument: console logging at WARN instead of main-app's OpenSearch appender at INFO. */
+    public static final String LOG_CONFIG = "-Dlog4j2.configurationFile=log4j2-benchmark.xml";
+
+    public static final String TIMESTAMP = "2025-08-21T18:38:18.049";
+
+    private static final String[] QUOTES = (
+            "TRY EUR GBP JPY CHF CAD AUD NZD SEK NOK DKK PLN CZK HUF RON BGN "
+            + "CNY HKD SGD KRW INR IDR MYR PHP THB TWD ZAR MXN BRL ARS CLP COP "
+            + "PEN ILS SAR AED QAR KWD BHD OMR EGP MAD NGN KES GHS UAH KZT GEL "
+            + "AZN AMD ISK RSD MKD ALL BAM MDL UZS PKR BDT LKR VND JOD TND XAU").split(" ");
+
+    private BenchData() {
+    }
+
+    /** The first {@code count} rate names, e.g. {@code PF1_USDTRY}; at most 64. */
+    public static String[] rateNames(String platform, int count) {
+        if (count < 1 || count > QUOTES.length)
+            throw new IllegalArgumentException("Symbol count must be 1.." + QUOTES.length + ": " + count);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++)
+            names[i] = platform + "_USD" + QUOTES[i];
+        return names;
+    }
+
+    public static double bid(int index) {
+        return 1.05 + index * 0.75;
+    }
+
+    public static double ask(int index) {
+        return bid(index) + 0.0015;
+    }
+}
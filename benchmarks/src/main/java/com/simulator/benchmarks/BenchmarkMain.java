@@ -0,0 +1,34 @@
+package com.simulator.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes the usual JMH command line ({@code -h} lists it) and adds the
+ * GC profiler unless {@code -prof gc} is already given, so every suite reports allocation
+ * ({@code gc.alloc.rate.norm}, bytes per operation) next to its throughput.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                  all suites
+ * java -jar benchmarks/target/benchmarks.jar PF1Parse -f 1    one suite, one fork
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+                || cmd.shouldListResultFormats()) {
+            // Listeleme / yardım için standart JMH girişi
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        boolean gcRequested = cmd.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcRequested)
+            options.addProfiler(GCProfiler.class);
+        new Runner(options.parent(cmd).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.simulator.benchmarks;
+
+import com.simulator.common.RateFields;
+import com.simulator.mainapp.Coordinator;
+import com.simulator.mainapp.RatePublisher;
+import com.simulator.mainapp.RateStore;
+import com.simulator.mainapp.history.TickHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Coordinator#onRateUpdate} with {@link RateStore#NONE} / {@link RatePublisher#NONE}: timestamp
+ * parsing, the optional tick history, derived rate evaluation and the sink calls, without Redis or Kafka.
+ * Ticks cycle over {@code symbols} rates of one subscriber with prebuilt {@link RateFields}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = BenchData.LOG_CONFIG)
+public class CoordinatorBenchmark {
+
+    @Param({"4", "16"})
+    int symbols;
+
+    @Param({"false", "true"})
+    boolean history;
+
+    private Coordinator coordinator;
+    private String[] names;
+    private RateFields[] fields;
+    private int next;
+
+    @Setup
+    public void setup() {
+        TickHistory ticks = history ? TickHistory.fromProperties(new Properties()) : null;
+        coordinator = new Coordinator(RateStore.NONE, RatePublisher.NONE, ticks, null);
+        names = BenchData.rateNames("PF1", symbols);
+        // Her kur için iki fiyat sırayla gönderilir
+        fields = new RateFields[symbols * 2];
+        for (int i = 0; i < symbols; i++) {
+            fields[i] = new RateFields(BenchData.bid(i), BenchData.ask(i), BenchData.TIMESTAMP);
+            fields[symbols + i] = new RateFields(BenchData.bid(i) + 0.0001, BenchData.ask(i) + 0.0001,
+                    BenchData.TIMESTAMP);
+            coordinator.onRateUpdate("bench", "PF1", names[i], fields[i]);
+        }
+    }
+
+    @Benchmark
+    public void onRateUpdate() {
+        int i = next;
+        next = i + 1 == fields.length ? 0 : i + 1;
+        coordinator.onRateUpdate("bench", "PF1", names[i % symbols], fields[i]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.simulator.benchmarks;
+
+import com.simulator.common.RateFields;
+import com.simulator.mainapp.UniversalRateCalculator;
+import com.simulator.mainapp.formula.DerivedRateEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derived rate calculation with the classpath {@code rate-formulas.json}, for a growing number of raw rates.
+ * {@code calculate} is the one-shot {@link UniversalRateCalculator#calculate} (formulas bound and every
+ * derived rate evaluated per call); {@code updateOneTick} is what {@code Coordinator} does per tick, one raw
+ * rate changed on an already bound {@link DerivedRateEvaluator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = BenchData.LOG_CONFIG)
+public class RateCalculationBenchmark {
+
+    @Param({"4", "16", "64"})
+    int symbols;
+
+    private final Map<String, RateFields> rates = new LinkedHashMap<>();
+    private String[] names;
+    private DerivedRateEvaluator evaluator;
+    private int next;
+    private long ticks;
+
+    @Setup
+    public void setup() {
+        names = BenchData.rateNames("PF1", symbols);
+        evaluator = new DerivedRateEvaluator();
+        for (int i = 0; i < symbols; i++) {
+            rates.put(names[i], new RateFields(BenchData.bid(i), BenchData.ask(i), BenchData.TIMESTAMP));
+            evaluator.update(names[i], BenchData.bid(i), BenchData.ask(i));
+        }
+    }
+
+    @Benchmark
+    public Map<String, RateFields> calculate() {
+        return UniversalRateCalculator.calculate(rates);
+    }
+
+    @Benchmark
+    public Map<String, RateFields> updateOneTick() {
+        int i = next;
+        next = i + 1 == symbols ? 0 : i + 1;
+        // Fiyat her turda biraz değişir
+        double move = (++ticks & 1) * 0.0001;
+        return evaluator.update(names[i], BenchData.bid(i) + move, BenchData.ask(i) + move);
+    }
+}
@@ -0,0 +1,67 @@
+package com.simulator.benchmarks;
+
+import com.simulator.common.RateTick;
+import com.simulator.common.codec.RateTickCodec;
+import com.simulator.common.codec.TimestampParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timestamp handling between main-app and db-consumer. {@code parse} is {@link TimestampParser#parseEpochMicros}
+ * for every format it accepts; it replaced the consumer's {@code parseTimestamp} and now runs once per tick on
+ * the producer side. {@code decodeRateTick} is what the consumer does instead: decode the binary
+ * {@link RateTick}, whose timestamp is already in epoch microseconds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = BenchData.LOG_CONFIG)
+public class TimestampParseBenchmark {
+
+    @State(Scope.Thread)
+    public static class Formats {
+        @Param({
+                "2025-08-21T18:38:18.049",       // LocalDateTime.now() (simulatörler)
+                "2025-08-21T18:38:18.049123456", // nanosaniye
+                "2025-08-21 18:38:18",           // boşluk ayraçlı, saniyeye kadar
+                "2025-08-21T18:38",              // saniyesiz
+                "2025-08-21T18:38:18.049Z",      // UTC
+                "2025-08-21T18:38:18.049+03:00"  // ofsetli
+        })
+        String timestamp;
+    }
+
+    @State(Scope.Thread)
+    public static class Encoded {
+        byte[] bytes;
+
+        @Setup
+        public void setup() {
+            RateTick tick = new RateTick("PF1_USDTRY", "subscriber1", BenchData.bid(0), BenchData.ask(0),
+                    TimestampParser.parseEpochMicros(BenchData.TIMESTAMP), 1L, false);
+            bytes = RateTickCodec.encode(tick);
+        }
+    }
+
+    @Benchmark
+    public long parse(Formats formats) {
+        return TimestampParser.parseEpochMicros(formats.timestamp);
+    }
+
+    @Benchmark
+    public long decodeRateTick(Encoded encoded) {
+        return RateTickCodec.decode(encoded.bytes).getTimestampMicros();
+    }
+}
@@ -0,0 +1,82 @@
+package com.simulator.mainapp;
+
+import com.simulator.benchmarks.BenchData;
+import com.simulator.common.RateFields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PF1 line decoding as done by the collectors: {@code decode} is {@link PF1TickDecoder#decode} on a buffer of
+ * recorded lines (one line per operation), {@code decodeToRateFields} adds the {@link RateFields} handed to the
+ * listener. Lives in the collectors' package because the decoder is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = BenchData.LOG_CONFIG)
+public class PF1ParseBenchmark {
+
+    private static final int LINES = 1024;
+
+    /** Decimal separator in the number fields; PF1 sends both. */
+    @Param({".", ","})
+    String separator;
+
+    private final PF1TickDecoder decoder = new PF1TickDecoder();
+    private final PF1Tick tick = new PF1Tick();
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        String[] names = BenchData.rateNames("PF1", 16);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            int s = i % names.length;
+            lines.append(names[s])
+                    .append("|22:number:").append(price(BenchData.bid(s) + i * 0.0001))
+                    .append("|25:number:").append(price(BenchData.ask(s) + i * 0.0001))
+                    .append("|5:timestamp:").append(BenchData.TIMESTAMP)
+                    .append('\n');
+        }
+        buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public double decode() {
+        next();
+        return tick.bid() + tick.ask();
+    }
+
+    @Benchmark
+    public RateFields decodeToRateFields() {
+        next();
+        return new RateFields(tick.bid(), tick.ask(), tick.timestamp());
+    }
+
+    private void next() {
+        if (!buffer.hasRemaining())
+            buffer.rewind();
+        if (decoder.decode(buffer, tick) != PF1TickDecoder.TICK)
+            throw new IllegalStateException("Sample line did not decode");
+    }
+
+    private String price(double value) {
+        return String.format(Locale.ROOT, "%.4f", value).replace(".", separator);
+    }
+}
@@ -0,0 +1,93 @@
+package com.simulator.mainapp;
+
+import com.simulator.benchmarks.BenchData;
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PF2RateCollector#parseAndNotify} on a single quote object ({@code quotes=1}) or the array returned by
+ * the batch endpoint; one operation is one response body, so divide by {@code quotes} for a per-quote figure.
+ * Lives in the collectors' package because {@code parseAndNotify} is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = BenchData.LOG_CONFIG)
+public class PF2ParseBenchmark {
+
+    @Param({"1", "16"})
+    int quotes;
+
+    private final PF2RateCollector collector = new PF2RateCollector();
+    private final Sink sink = new Sink();
+    private String json;
+
+    @Setup
+    public void setup() {
+        collector.setSubscriberId("bench");
+        collector.setListener(sink);
+
+        String[] names = BenchData.rateNames("PF2", quotes);
+        StringBuilder body = new StringBuilder();
+        if (quotes > 1)
+            body.append('[');
+        for (int i = 0; i < quotes; i++) {
+            if (i > 0)
+                body.append(',');
+            body.append(String.format(Locale.ROOT,
+                    "{\"rateName\":\"%s\",\"bid\":%.4f,\"ask\":%.4f,\"timestamp\":\"%s\"}",
+                    names[i], BenchData.bid(i), BenchData.ask(i), BenchData.TIMESTAMP));
+        }
+        if (quotes > 1)
+            body.append(']');
+        json = body.toString();
+    }
+
+    @Benchmark
+    public double parseAndNotify() {
+        collector.parseAndNotify(json);
+        return sink.sum;
+    }
+
+    // Gelen tick'leri tüketir ki parse sonucu optimize edilip atılmasın
+    private static final class Sink implements RateListener {
+        double sum;
+
+        @Override
+        public void onRateUpdate(String subscriberId, String platform, String rateName, RateFields fields) {
+            sum += fields.getBid();
+        }
+
+        @Override
+        public void onConnect(String platform, boolean status) {
+        }
+
+        @Override
+        public void onDisconnect(String platform, boolean status) {
+        }
+
+        @Override
+        public void onRateAvailable(String subscriberId, String platform, String rateName, RateFields fields) {
+        }
+
+        @Override
+        public void onRateStatus(String platform, String rateName, String status) {
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.exchange.logging;
+
+import org.apache.http.HttpHost;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.*;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.plugins.*;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.client.*;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.xcontent.XContentFactory;
+
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Log4j2 için custom appender: logları OpenSearch'e yazar.
+// append() olayı sınırlı, kilitsiz bir kuyruğa koyar ve hemen döner; arka plandaki
+// "opensearch-appender" thread'i kuyruğu bulk istekleriyle gönderir. Kuyruk dolunca
+// overflowPolicy uygulanır: DROP_OLDEST, DROP_BELOW_LEVEL (overflowLevel'dan düşük olanları at) veya BLOCK.
+@Plugin(name = "OpenSearchAppender",
+        category = Core.CATEGORY_NAME,
+        elementType = Appender.ELEMENT_TYPE,
+        printObject = true)
+public class OpenSearchAppender extends AbstractAppender {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST, DROP_BELOW_LEVEL, BLOCK
+    }
+
+    // Hata mesajlarını en fazla bu aralıkla bas; OpenSearch kapalıyken konsolu doldurmasın
+    private static final long ERROR_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Host adı bir kez çözülür
+    private static final String HOST_NAME = resolveHostName();
+
+    private final RestHighLevelClient client; // OpenSearch istemcisi
+    private final String indexName;           // Logların yazılacağı index adı
+    private final String serviceName;         // Servis adı (hangi uygulamadan geldiği)
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Level overflowLevel;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile Thread worker;
+    private volatile boolean running;
+    private long lastErrorLog;
+
+    // Constructor
+    protected OpenSearchAppender(String name,
+                                 Filter filter,
+                                 Layout<? extends Serializable> layout,
+                                 boolean ignoreExceptions,
+                                 RestHighLevelClient client,
+                                 String indexName,
+                                 String serviceName,
+                                 int capacity,
+                                 int batchSize,
+                                 long flushIntervalMs,
+                                 OverflowPolicy overflowPolicy,
+                                 Level overflowLevel) {
+        super(name, filter, layout, ignoreExceptions, null);
+        this.client = client;
+        this.indexName = indexName;
+        this.serviceName = serviceName;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.overflowLevel = overflowLevel;
+    }
+
+    // Log4j2.xml dosyasından appender oluşturmak için plugin factory
+    @PluginFactory
+    public static OpenSearchAppender createAppender(
+            @PluginAttribute("name") String name,
+            @PluginAttribute("indexName") String indexName,
+            @PluginAttribute("serviceName") String serviceName,
+            @PluginAttribute("host") String host,
+            @PluginAttribute(value = "port", defaultInt = 9200) int port,
+            @PluginAttribute(value = "scheme", defaultString = "http") String scheme,
+            @PluginAttribute(value = "queueSize", defaultInt = 8192) int queueSize,
+            @PluginAttribute(value = "batchSize", defaultInt = 500) int batchSize,
+            @PluginAttribute(value = "flushIntervalMs", defaultLong = 1000) long flushIntervalMs,
+            @PluginAttribute(value = "overflowPolicy", defaultString = "DROP_OLDEST") String overflowPolicy,
+            @PluginAttribute(value = "overflowLevel", defaultString = "WARN") String overflowLevel) {
+
+        String osHost = (host != null && !host.isEmpty()) ? host : "localhost";
+
+        // OpenSearch istemcisi oluştur
+        RestHighLevelClient client = new RestHighLevelClient(
+                RestClient.builder(new HttpHost(osHost, port, scheme))
+        );
+
+        // Appender nesnesini döndür
+        return new OpenSearchAppender(name, null,
+                PatternLayout.createDefaultLayout(), true,
+                client, indexName, serviceName,
+                Math.max(1, queueSize), Math.max(1, batchSize), flushIntervalMs,
+                OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase()),
+                Level.toLevel(overflowLevel, Level.WARN));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread t = new Thread(this::runWorker, "opensearch-appender-" + getName());
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+        super.start();
+    }
+
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        setStopping();
+        running = false;
+        Thread t = worker;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(timeUnit.toMillis(timeout) > 0 ? timeUnit.toMillis(timeout) : 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOGGER.warn("[OpenSearchAppender] Error closing client", e);
+        }
+        setStopped();
+        return true;
+    }
+
+    // Log eventi geldiğinde çağrılır → kuyruğa alınır, gönderim arka planda yapılır
+    @Override
+    public void append(LogEvent event) {
+        // İstemcinin kendi thread'inde üretilen loglar geri beslemeye yol açmasın
+        if (Thread.currentThread() == worker)
+            return;
+
+        // LogEvent nesneleri yeniden kullanılabilir; gerekli alanlar kopyalanır
+        Entry entry = new Entry(event.getTimeMillis(), event.getLevel(), event.getLoggerName(),
+                event.getThreadName(), event.getMessage().getFormattedMessage());
+
+        if (reserve()) {
+            queue.offer(entry);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                while (!reserve()) {
+                    if (!running) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.parkNanos(100_000);
+                }
+                queue.offer(entry);
+                return;
+            case DROP_BELOW_LEVEL:
+                // Örn. overflowLevel=WARN: dolu kuyrukta INFO/DEBUG atılır, WARN/ERROR eskiyi iterek girer
+                if (!event.getLevel().isMoreSpecificThan(overflowLevel)) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                replaceOldest(entry);
+                return;
+            default:
+                replaceOldest(entry);
+        }
+    }
+
+    /** Kuyrukta bekleyen olay sayısı. */
+    public int getQueuedCount() {
+        return size.get();
+    }
+
+    /** Kuyruk dolduğu için atılan olay sayısı. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** OpenSearch'e gönderilen olay sayısı. */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /** Bulk isteği başarısız olan olay sayısı. */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    // Kuyrukta yer ayırır; kapasite doluysa false döner (kilitsiz CAS)
+    private boolean reserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity)
+                return false;
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    // En eski olayı atıp yenisini ekler; boyut değişmez
+    private void replaceOldest(Entry entry) {
+        if (queue.poll() != null) {
+            dropped.incrementAndGet();
+            queue.offer(entry);
+        } else if (reserve()) {
+            // Worker kuyruğu bu arada boşalttı
+            queue.offer(entry);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void runWorker() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (running || size.get() > 0) {
+            Entry entry = queue.poll();
+            if (entry == null) {
+                long now = System.nanoTime();
+                if (!batch.isEmpty() && (now - deadline >= 0 || !running)) {
+                    send(batch);
+                    continue;
+                }
+                LockSupport.parkNanos(batch.isEmpty() ? IDLE_PARK_NANOS : Math.min(IDLE_PARK_NANOS, deadline - now));
+                continue;
+            }
+            size.decrementAndGet();
+            if (batch.isEmpty())
+                deadline = System.nanoTime() + flushIntervalNanos;
+            batch.add(entry);
+            if (batch.size() >= batchSize)
+                send(batch);
+        }
+        if (!batch.isEmpty())
+            send(batch);
+    }
+
+    private void send(List<Entry> batch) {
+        try {
+            BulkRequest request = new BulkRequest();
+            for (Entry e : batch) {
+                request.add(new IndexRequest(indexName).source(XContentFactory.jsonBuilder().startObject()
+                        .field("timestamp", Instant.ofEpochMilli(e.timeMillis).toString()) // Log zamanı
+                        .field("level", e.level.toString())                                 // Log seviyesi
+                        .field("logger", e.loggerName)                                      // Logger ismi
+                        .field("thread", e.threadName)                                      // Thread bilgisi
+                        .field("message", e.message)                                        // Log mesajı
+                        .field("service", serviceName)                                      // Hangi servis
+                        .field("host", HOST_NAME)                                           // Host adı
+                        .endObject()));
+            }
+            BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
+            if (response.hasFailures()) {
+                int failures = 0;
+                for (var item : response.getItems())
+                    if (item.isFailed())
+                        failures++;
+                failed.addAndGet(failures);
+                sent.addAndGet(batch.size() - failures);
+                logError("[OpenSearchAppender] Bulk had " + failures + " failed items: "
+                        + response.buildFailureMessage(), null);
+            } else {
+                sent.addAndGet(batch.size());
+            }
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            logError("[OpenSearchAppender] Failed to send " + batch.size() + " log events to index " + indexName
+                    + " (dropped=" + dropped.get() + ", failed=" + failed.get() + ")", e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void logError(String message, Exception e) {
+        long now = System.nanoTime();
+        if (lastErrorLog != 0 && now - lastErrorLog < ERROR_LOG_INTERVAL_NANOS)
+            return;
+        lastErrorLog = now;
+        LOGGER.error(message, e);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    private static final class Entry {
+        final long timeMillis;
+        final Level level;
+        final String loggerName;
+        final String threadName;
+        final String message;
+
+        Entry(long timeMillis, Level level, String loggerName, String threadName, String message) {
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.loggerName = loggerName;
+            this.threadName = threadName;
+            this.message = message;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.simulator.common;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class RateFields {
@@ -7,6 +8,8 @@ public class RateFields {
     private double bid;
     private double ask;
     private String timestamp; // ISO string formatında saklanacak
+    private long receiveMicros; // main-app'e ulaştığı an (epoch mikro saniye), 0 = bilinmiyor; JSON'a yazılmaz
+    private long eventMicros; // timestamp'in epoch mikro saniye hali, bir kez çözülür; 0 = çözülmedi; JSON'a yazılmaz
 
     // Default constructor for Jackson
     public RateFields() {}
@@ -42,6 +45,26 @@ public class RateFields {
         this.timestamp = timestamp;
     }
 
+    @JsonIgnore
+    public long getReceiveMicros() {
+        return receiveMicros;
+    }
+
+    @JsonIgnore
+    public void setReceiveMicros(long receiveMicros) {
+        this.receiveMicros = receiveMicros;
+    }
+
+    @JsonIgnore
+    public long getEventMicros() {
+        return eventMicros;
+    }
+
+    @JsonIgnore
+    public void setEventMicros(long eventMicros) {
+        this.eventMicros = eventMicros;
+    }
+
     // JSON string'e dönüştürme (Redis için)
     public String toJson() {
         try {
@@ -0,0 +1,71 @@
+package com.simulator.common;
+
+import java.time.Instant;
+
+/**
+ * A rate as it travels through Kafka. Unlike {@link RateFields} the timestamp is already resolved
+ * to epoch microseconds, so consumers never parse it again.
+ */
+public final class RateTick {
+
+    private final String symbol;
+    private final String source;
+    private final double bid;
+    private final double ask;
+    private final long timestampMicros;
+    private final long sequence;
+    private final boolean calculated;
+
+    public RateTick(String symbol, String source, double bid, double ask, long timestampMicros, long sequence,
+                    boolean calculated) {
+        this.symbol = symbol;
+        this.source = source;
+        this.bid = bid;
+        this.ask = ask;
+        this.timestampMicros = timestampMicros;
+        this.sequence = sequence;
+        this.calculated = calculated;
+    }
+
+    // Rate name, e.g. PF1_USDTRY for raw rates or USDTRY for calculated ones
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Subscriber that produced the tick
+    public String getSource() {
+        return source;
+    }
+
+    public double getBid() {
+        return bid;
+    }
+
+    public double getAsk() {
+        return ask;
+    }
+
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    // Publisher-wide sequence number, increasing by one per message
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isCalculated() {
+        return calculated;
+    }
+
+    public Instant timestamp() {
+        return Instant.ofEpochSecond(Math.floorDiv(timestampMicros, 1_000_000L),
+                Math.floorMod(timestampMicros, 1_000_000L) * 1000L);
+    }
+
+    // Same pipe format the string messages used, for logs
+    @Override
+    public String toString() {
+        return symbol + "|" + bid + "|" + ask + "|" + timestamp();
+    }
+}
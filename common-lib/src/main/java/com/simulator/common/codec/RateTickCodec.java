@@ -0,0 +1,105 @@
+package com.simulator.common.codec;
+
+import com.simulator.common.RateTick;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-layout binary encoding of {@link RateTick}, big-endian:
+ * <pre>
+ *  0  byte    version (1)
+ *  1  byte    flags (bit 0: calculated)
+ *  2  long    sequence
+ * 10  long    timestamp, epoch microseconds
+ * 18  double  bid
+ * 26  double  ask
+ * 34  byte    symbol length, then symbol bytes (ASCII)
+ *     byte    source length, then source bytes (ASCII)
+ * </pre>
+ * A raw tick is about 57 bytes; the old {@code rate|bid|ask|timestamp} string was about the same size
+ * without carrying source and sequence, and had to be formatted and parsed on every hop.
+ */
+public final class RateTickCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_CALCULATED = 1;
+    private static final int HEADER_SIZE = 34;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private RateTickCodec() {
+    }
+
+    public static int encodedSize(RateTick tick) {
+        return HEADER_SIZE + 1 + tick.getSymbol().length() + 1 + tick.getSource().length();
+    }
+
+    public static byte[] encode(RateTick tick) {
+        byte[] bytes = new byte[encodedSize(tick)];
+        encode(tick, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    public static void encode(RateTick tick, ByteBuffer buffer) {
+        buffer.put(VERSION);
+        buffer.put((byte) (tick.isCalculated() ? FLAG_CALCULATED : 0));
+        buffer.putLong(tick.getSequence());
+        buffer.putLong(tick.getTimestampMicros());
+        buffer.putDouble(tick.getBid());
+        buffer.putDouble(tick.getAsk());
+        putName(buffer, tick.getSymbol());
+        putName(buffer, tick.getSource());
+    }
+
+    public static RateTick decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public static RateTick decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE + 2)
+            throw new IllegalArgumentException("Rate tick too short: " + buffer.remaining() + " bytes");
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported rate tick version: " + version);
+        int flags = buffer.get();
+        long sequence = buffer.getLong();
+        long timestampMicros = buffer.getLong();
+        double bid = buffer.getDouble();
+        double ask = buffer.getDouble();
+        String symbol = getName(buffer);
+        String source = getName(buffer);
+        return new RateTick(symbol, source, bid, ask, timestampMicros, sequence, (flags & FLAG_CALCULATED) != 0);
+    }
+
+    private static void putName(ByteBuffer buffer, String name) {
+        int length = name.length();
+        if (length > MAX_NAME_LENGTH)
+            throw new IllegalArgumentException("Name longer than " + MAX_NAME_LENGTH + " characters: " + name);
+        buffer.put((byte) length);
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c > 0x7F)
+                throw new IllegalArgumentException("Non-ASCII character in name: " + name);
+            buffer.put((byte) c);
+        }
+    }
+
+    private static String getName(ByteBuffer buffer) {
+        if (!buffer.hasRemaining())
+            throw new IllegalArgumentException("Rate tick truncated before a name field");
+        int length = buffer.get() & 0xFF;
+        if (buffer.remaining() < length)
+            throw new IllegalArgumentException("Rate tick truncated in a name field");
+        String name;
+        if (buffer.hasArray()) {
+            name = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.US_ASCII);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,20 @@
+package com.simulator.common.codec;
+
+import com.simulator.common.RateTick;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Kafka value deserializer for RateTick, see RateTickCodec for the layout
+public class RateTickDeserializer implements Deserializer<RateTick> {
+
+    @Override
+    public RateTick deserialize(String topic, byte[] data) {
+        if (data == null)
+            return null;
+        try {
+            return RateTickCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot decode rate tick from topic " + topic + ": " + e.getMessage(), e);
+        }
+    }
+}
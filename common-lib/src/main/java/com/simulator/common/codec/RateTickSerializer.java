@@ -0,0 +1,20 @@
+package com.simulator.common.codec;
+
+import com.simulator.common.RateTick;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+// Kafka value serializer for RateTick, see RateTickCodec for the layout
+public class RateTickSerializer implements Serializer<RateTick> {
+
+    @Override
+    public byte[] serialize(String topic, RateTick data) {
+        if (data == null)
+            return null;
+        try {
+            return RateTickCodec.encode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot encode rate tick for topic " + topic + ": " + e.getMessage(), e);
+        }
+    }
+}
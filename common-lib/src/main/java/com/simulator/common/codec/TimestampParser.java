@@ -0,0 +1,149 @@
+package com.simulator.common.codec;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * Parses the ISO-8601 timestamps the platforms send into epoch microseconds, reading characters in place.
+ * <p>
+ * Accepts {@code yyyy-MM-dd'T'HH:mm[:ss[.fffffffff]]} with 'T' or a space as separator, followed by an
+ * optional 'Z' or {@code ±HH[:]MM} offset. Timestamps without an offset are local time in the JVM's
+ * default zone, which is how {@code LocalDateTime.now().toString()} values from the simulators are
+ * meant. Nothing is allocated unless the default zone has daylight saving transitions.
+ */
+public final class TimestampParser {
+
+    private static final ZoneRules LOCAL_RULES = ZoneId.systemDefault().getRules();
+    // True when the default zone never changes its offset, e.g. UTC
+    private static final boolean FIXED_OFFSET = LOCAL_RULES.isFixedOffset();
+    private static final int FIXED_OFFSET_SECONDS = LOCAL_RULES.getOffset(Instant.EPOCH).getTotalSeconds();
+
+    private TimestampParser() {
+    }
+
+    /** @throws IllegalArgumentException if the text is not a supported timestamp */
+    public static long parseEpochMicros(CharSequence text) {
+        int length = text.length();
+        if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(13) != ':'
+                || (text.charAt(10) != 'T' && text.charAt(10) != ' '))
+            throw invalid(text);
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = 0;
+        int micros = 0;
+
+        int pos = 16;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = digits(text, pos + 1, 2);
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                pos++;
+                int fractionDigits = 0;
+                while (pos < length && isDigit(text.charAt(pos))) {
+                    // Sub-microsecond digits are dropped
+                    if (fractionDigits < 6)
+                        micros = micros * 10 + (text.charAt(pos) - '0');
+                    fractionDigits++;
+                    pos++;
+                }
+                if (fractionDigits == 0)
+                    throw invalid(text);
+                for (int i = fractionDigits; i < 6; i++)
+                    micros *= 10;
+            }
+        }
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) || hour > 23 || minute > 59
+                || second > 59)
+            throw invalid(text);
+
+        long localSeconds = daysFromCivil(year, month, day) * 86_400L + hour * 3600L + minute * 60L + second;
+        long offsetSeconds;
+        if (pos == length) {
+            offsetSeconds = localOffsetSeconds(localSeconds);
+        } else if (text.charAt(pos) == 'Z' && pos + 1 == length) {
+            offsetSeconds = 0;
+        } else {
+            offsetSeconds = parseOffset(text, pos);
+        }
+        return (localSeconds - offsetSeconds) * 1_000_000L + micros;
+    }
+
+    private static long parseOffset(CharSequence text, int pos) {
+        char sign = text.charAt(pos);
+        if (sign != '+' && sign != '-')
+            throw invalid(text);
+        int remaining = text.length() - pos - 1;
+        int hours = digits(text, pos + 1, 2);
+        int minutes;
+        if (remaining == 2)
+            minutes = 0;
+        else if (remaining == 4)
+            minutes = digits(text, pos + 3, 2);
+        else if (remaining == 5 && text.charAt(pos + 3) == ':')
+            minutes = digits(text, pos + 4, 2);
+        else
+            throw invalid(text);
+        int seconds = hours * 3600 + minutes * 60;
+        return sign == '-' ? -seconds : seconds;
+    }
+
+    private static long localOffsetSeconds(long localSeconds) {
+        if (FIXED_OFFSET)
+            return FIXED_OFFSET_SECONDS;
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        return LOCAL_RULES.getOffset(local).getTotalSeconds();
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's days_from_civil)
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        if (start + count > text.length())
+            throw invalid(text);
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c))
+                throw invalid(text);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text) {
+        return new IllegalArgumentException("Unsupported timestamp format: " + text);
+    }
+}
@@ -0,0 +1,109 @@
+package com.simulator.common.latency;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link LatencyTracker} on {@code GET /latency} in the Prometheus text format, using the JDK's
+ * built-in HTTP server so services without Spring Web can be scraped too:
+ * <pre>
+ * tick_latency_microseconds{service="main-app",stage="receive",symbol="PF1_USDTRY",quantile="0.99"} 850
+ * tick_latency_microseconds_count{...} 123456
+ * tick_latency_microseconds_sum{...} 9.87e7
+ * tick_latency_max_microseconds{...} 2100
+ * </pre>
+ * Quantiles and max cover the last report interval, count and sum are cumulative. A service that already
+ * serves other metrics appends {@link #render(LatencyTracker)} to them instead of opening a second port.
+ */
+public final class LatencyEndpoint implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(LatencyEndpoint.class);
+
+    private static final String METRIC = "tick_latency_microseconds";
+    private static final String MAX_METRIC = "tick_latency_max_microseconds";
+
+    private final LatencyTracker tracker;
+    private final HttpServer server;
+
+    public LatencyEndpoint(LatencyTracker tracker, int port) throws IOException {
+        this.tracker = tracker;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/latency", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "latency-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        logger.info("[LatencyEndpoint] Serving /latency on port {}", server.getAddress().getPort());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** The snapshot in Prometheus text exposition format. */
+    public String render() {
+        return render(tracker);
+    }
+
+    /** The tracker's snapshot in Prometheus text exposition format. */
+    public static String render(LatencyTracker tracker) {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# HELP ").append(METRIC)
+                .append(" Tick latency per pipeline stage, quantiles over the last report interval\n");
+        out.append("# TYPE ").append(METRIC).append(" summary\n");
+        for (LatencyTracker.Row row : tracker.snapshot()) {
+            String labels = labels(tracker, row);
+            quantile(out, labels, "0.5", row.p50());
+            quantile(out, labels, "0.99", row.p99());
+            quantile(out, labels, "0.999", row.p999());
+            out.append(METRIC).append("_count{").append(labels).append("} ").append(row.count()).append('\n');
+            out.append(METRIC).append("_sum{").append(labels).append("} ").append(row.sum()).append('\n');
+        }
+        out.append("# HELP ").append(MAX_METRIC).append(" Largest tick latency in the last report interval\n");
+        out.append("# TYPE ").append(MAX_METRIC).append(" gauge\n");
+        for (LatencyTracker.Row row : tracker.snapshot()) {
+            out.append(MAX_METRIC).append('{').append(labels(tracker, row)).append("} ").append(row.max())
+                    .append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static String labels(LatencyTracker tracker, LatencyTracker.Row row) {
+        return "service=\"" + tracker.service() + "\",stage=\"" + row.stage() + "\",symbol=\"" + row.symbol() + "\"";
+    }
+
+    private static void quantile(StringBuilder out, String labels, String quantile, long value) {
+        out.append(METRIC).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                .append(value).append('\n');
+    }
+}
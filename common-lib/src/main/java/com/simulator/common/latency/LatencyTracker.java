@@ -0,0 +1,154 @@
+package com.simulator.common.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick latency histograms per pipeline stage and symbol, in microseconds.
+ * <p>
+ * {@link #record} is lock-free: an HdrHistogram {@link Recorder} per stage and symbol, 2 significant digits,
+ * auto-resizing to the largest value seen (about 30 KB per series for values up to seconds). Every report
+ * interval the recorders are rolled: the interval just finished becomes the {@link #snapshot} served to
+ * scrapers, is added to the cumulative count and sum, and p50/p99/p99.9 per stage are logged (per symbol at
+ * debug). Each stage also gets an {@link #ALL} row merging its symbols. Negative values (clock skew between
+ * hosts) are recorded as 0.
+ */
+public final class LatencyTracker implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(LatencyTracker.class);
+
+    /** Symbol of the per-stage row that merges all symbols. */
+    public static final String ALL = "_all";
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String service;
+    private final Map<String, Map<String, Series>> stages = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService roller;
+    private volatile List<Row> snapshot = Collections.emptyList();
+
+    /** @param reportIntervalMs roll and log period; 0 leaves rolling to {@link #roll()} calls */
+    public LatencyTracker(String service, long reportIntervalMs) {
+        this.service = service;
+        if (reportIntervalMs > 0) {
+            roller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "latency-report");
+                t.setDaemon(true);
+                return t;
+            });
+            roller.scheduleAtFixedRate(this::rollAndLog, reportIntervalMs, reportIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            roller = null;
+        }
+        logger.info("[LatencyTracker] Started service={} reportIntervalMs={}", service, reportIntervalMs);
+    }
+
+    /** Reads {@code latency.report.interval.ms} (default 10000). */
+    public static LatencyTracker fromProperties(String service, Properties props) {
+        return new LatencyTracker(service,
+                Long.parseLong(props.getProperty("latency.report.interval.ms", "10000").trim()));
+    }
+
+    public String service() {
+        return service;
+    }
+
+    public void record(String stage, String symbol, long micros) {
+        Map<String, Series> symbols = stages.get(stage);
+        if (symbols == null)
+            symbols = stages.computeIfAbsent(stage, k -> new ConcurrentHashMap<>());
+        Series series = symbols.get(symbol);
+        if (series == null)
+            series = symbols.computeIfAbsent(symbol, k -> new Series());
+        series.recorder.recordValue(Math.max(0, micros));
+    }
+
+    /** Rows of the last finished interval, sorted by stage and symbol. */
+    public List<Row> snapshot() {
+        return snapshot;
+    }
+
+    /** Closes the current interval and publishes it as the new {@link #snapshot}. */
+    public synchronized List<Row> roll() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Series>> stage : new TreeMap<>(stages).entrySet()) {
+            Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+            long totalCount = 0;
+            double totalSum = 0;
+            List<Row> symbolRows = new ArrayList<>();
+            for (Map.Entry<String, Series> e : new TreeMap<>(stage.getValue()).entrySet()) {
+                Series s = e.getValue();
+                s.interval = s.recorder.getIntervalHistogram(s.interval);
+                s.count += s.interval.getTotalCount();
+                s.sum += s.interval.getMean() * s.interval.getTotalCount();
+                merged.add(s.interval);
+                totalCount += s.count;
+                totalSum += s.sum;
+                symbolRows.add(row(stage.getKey(), e.getKey(), s.interval, s.count, s.sum));
+            }
+            rows.add(row(stage.getKey(), ALL, merged, totalCount, totalSum));
+            rows.addAll(symbolRows);
+        }
+        List<Row> published = Collections.unmodifiableList(rows);
+        snapshot = published;
+        return published;
+    }
+
+    @Override
+    public void close() {
+        if (roller != null)
+            roller.shutdownNow();
+    }
+
+    private void rollAndLog() {
+        try {
+            for (Row row : roll()) {
+                if (row.intervalCount() == 0)
+                    continue;
+                if (ALL.equals(row.symbol())) {
+                    logger.info("[Latency] service={} stage={} n={} p50={}us p99={}us p99.9={}us max={}us",
+                            service, row.stage(), row.intervalCount(), row.p50(), row.p99(), row.p999(), row.max());
+                } else {
+                    logger.debug("[Latency] service={} stage={} symbol={} n={} p50={}us p99={}us p99.9={}us max={}us",
+                            service, row.stage(), row.symbol(), row.intervalCount(), row.p50(), row.p99(),
+                            row.p999(), row.max());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("[LatencyTracker] Report failed", e);
+        }
+    }
+
+    private static Row row(String stage, String symbol, Histogram h, long count, double sum) {
+        boolean empty = h.getTotalCount() == 0;
+        return new Row(stage, symbol, h.getTotalCount(),
+                empty ? 0 : h.getValueAtPercentile(50), empty ? 0 : h.getValueAtPercentile(99),
+                empty ? 0 : h.getValueAtPercentile(99.9), empty ? 0 : h.getMaxValue(), count, sum);
+    }
+
+    private static final class Series {
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        // Only touched under roll()
+        Histogram interval;
+        long count;
+        double sum;
+    }
+
+    /** One stage and symbol: percentiles of the last interval, count and sum since start. */
+    public record Row(String stage, String symbol, long intervalCount, long p50, long p99, long p999, long max,
+                      long count, double sum) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.simulator.common.latency;
+
+import java.time.Instant;
+
+/**
+ * Pipeline stamps carried with a tick, in epoch microseconds.
+ * <p>
+ * The origin is the tick's own timestamp ({@code RateTick.getTimestampMicros()}). main-app adds two Kafka
+ * headers, each an 8-byte big-endian long:
+ * <pre>
+ * t-recv   when the collector handed the tick to main-app
+ * t-sent   when main-app handed it to the Kafka producer (Coordinator done)
+ * </pre>
+ * The stages recorded in {@link LatencyTracker} are the gaps between consecutive stamps.
+ */
+public final class TickStamps {
+
+    public static final String RECEIVE_HEADER = "t-recv";
+    public static final String SENT_HEADER = "t-sent";
+
+    /** Origin to collector receive (main-app). */
+    public static final String STAGE_RECEIVE = "receive";
+    /** Collector receive to Kafka hand-off: pipeline queue and Coordinator (main-app). */
+    public static final String STAGE_COORDINATOR = "coordinator";
+    /** Kafka hand-off to broker ack (main-app). */
+    public static final String STAGE_KAFKA_ACK = "kafka_ack";
+    /** Kafka hand-off to consumer poll (db-consumer). */
+    public static final String STAGE_CONSUME = "consume";
+    /** Consumer poll to DB commit (db-consumer). */
+    public static final String STAGE_DB_COMMIT = "db_commit";
+    /** Origin to DB commit (db-consumer). */
+    public static final String STAGE_END_TO_END = "end_to_end";
+
+    private TickStamps() {
+    }
+
+    /** Wall clock in epoch microseconds, comparable across services on synchronised hosts. */
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1000;
+    }
+
+    public static byte[] toBytes(long micros) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) micros;
+            micros >>>= 8;
+        }
+        return bytes;
+    }
+
+    /** @return the stamp, or 0 when the header is missing or malformed */
+    public static long fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 8)
+            return 0;
+        long micros = 0;
+        for (byte b : bytes)
+            micros = (micros << 8) | (b & 0xFF);
+        return micros;
+    }
+}
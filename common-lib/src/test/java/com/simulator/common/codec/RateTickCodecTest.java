@@ -0,0 +1,93 @@
+package com.simulator.common.codec;
+
+import com.simulator.common.RateTick;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateTickCodecTest {
+
+    private static final RateTick RAW = new RateTick("PF1_USDTRY", "sub1", 34.1025, 34.2075,
+            1_704_067_200_123_456L, 42, false);
+
+    @Test
+    void rawTickRoundTrips() {
+        byte[] bytes = RateTickCodec.encode(RAW);
+        assertEquals(RateTickCodec.encodedSize(RAW), bytes.length);
+        assertTick(RAW, RateTickCodec.decode(bytes));
+    }
+
+    @Test
+    void calculatedTickWithEmptySourceRoundTrips() {
+        RateTick calc = new RateTick("USDTRY", "", Double.MIN_VALUE, Double.MAX_VALUE, -1, Long.MAX_VALUE, true);
+        RateTick decoded = RateTickCodec.decode(RateTickCodec.encode(calc));
+        assertTick(calc, decoded);
+        assertTrue(decoded.isCalculated());
+    }
+
+    @Test
+    void decodesFromTheBufferPositionAndLeavesTheRest() {
+        int size = RateTickCodec.encodedSize(RAW);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + 2 * size + 1);
+        buffer.position(3);
+        RateTickCodec.encode(RAW, buffer);
+        RateTickCodec.encode(RAW, buffer);
+        buffer.flip().position(3);
+
+        assertTick(RAW, RateTickCodec.decode(buffer));
+        assertTick(RAW, RateTickCodec.decode(buffer.slice()));
+        // Array'siz (direct) buffer da aynı yoldan okunur
+        ByteBuffer direct = ByteBuffer.allocateDirect(size).put(RateTickCodec.encode(RAW)).flip();
+        assertTick(RAW, RateTickCodec.decode(direct));
+        assertFalse(direct.hasRemaining());
+    }
+
+    @Test
+    void truncatedInputIsRejected() {
+        byte[] bytes = RateTickCodec.encode(RAW);
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> RateTickCodec.decode(truncated),
+                    "length " + length);
+        }
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] bytes = RateTickCodec.encode(RAW);
+        bytes[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> RateTickCodec.decode(bytes));
+    }
+
+    @Test
+    void nameLengthPastTheEndIsRejected() {
+        byte[] bytes = RateTickCodec.encode(RAW);
+        // Sembol uzunluğu byte'ı (offset 34) kalan veriden büyük
+        bytes[34] = (byte) 200;
+        assertThrows(IllegalArgumentException.class, () -> RateTickCodec.decode(bytes));
+    }
+
+    @Test
+    void namesThatDoNotFitTheLayoutAreRejected() {
+        RateTick nonAscii = new RateTick("PF1_USDTRY", "aboné", 1, 1, 0, 0, false);
+        assertThrows(IllegalArgumentException.class, () -> RateTickCodec.encode(nonAscii));
+        RateTick tooLong = new RateTick("X".repeat(256), "sub1", 1, 1, 0, 0, false);
+        assertThrows(IllegalArgumentException.class, () -> RateTickCodec.encode(tooLong));
+    }
+
+    private static void assertTick(RateTick expected, RateTick actual) {
+        assertEquals(expected.getSymbol(), actual.getSymbol());
+        assertEquals(expected.getSource(), actual.getSource());
+        assertEquals(expected.getBid(), actual.getBid());
+        assertEquals(expected.getAsk(), actual.getAsk());
+        assertEquals(expected.getTimestampMicros(), actual.getTimestampMicros());
+        assertEquals(expected.getSequence(), actual.getSequence());
+        assertEquals(expected.isCalculated(), actual.isCalculated());
+    }
+}
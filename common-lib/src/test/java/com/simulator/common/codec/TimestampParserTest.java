@@ -0,0 +1,96 @@
+package com.simulator.common.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimestampParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-01-15T10:30:45Z",
+            "2024-01-15T10:30:45.123Z",
+            "2024-01-15T10:30:45.123456Z",
+            "1999-12-31T23:59:59.999999Z",
+            "1969-07-20T20:17:40Z",
+            "2024-02-29T00:00:00Z",
+            "2000-02-29T12:00:00Z"
+    })
+    void utcMatchesInstant(String text) {
+        assertEquals(micros(Instant.parse(text)), TimestampParser.parseEpochMicros(text));
+    }
+
+    @Test
+    void offsetsInAllFormsMatchInstant() {
+        long expected = micros(Instant.parse("2024-01-15T07:00:45Z"));
+        assertEquals(expected, TimestampParser.parseEpochMicros("2024-01-15T10:30:45+03:30"));
+        assertEquals(expected, TimestampParser.parseEpochMicros("2024-01-15T10:30:45+0330"));
+        assertEquals(expected + 3_600_000_000L * 6 + 1_800_000_000L,
+                TimestampParser.parseEpochMicros("2024-01-15T10:30:45-03"));
+    }
+
+    @Test
+    void withoutOffsetIsLocalTime() {
+        String text = "2024-07-01T12:00:00.250";
+        long expected = micros(LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant());
+        assertEquals(expected, TimestampParser.parseEpochMicros(text));
+    }
+
+    @Test
+    void spaceSeparatorAndMissingSeconds() {
+        assertEquals(micros(Instant.parse("2024-01-15T10:30:00Z")),
+                TimestampParser.parseEpochMicros("2024-01-15 10:30Z"));
+    }
+
+    @Test
+    void fractionIsPaddedAndTruncatedToMicros() {
+        long base = micros(Instant.parse("2024-01-15T10:30:45Z"));
+        assertEquals(base + 500_000, TimestampParser.parseEpochMicros("2024-01-15T10:30:45.5Z"));
+        assertEquals(base + 123_456, TimestampParser.parseEpochMicros("2024-01-15T10:30:45.123456789Z"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-02-31T00:00:00Z",
+            "2025-02-29T00:00:00Z",
+            "1900-02-29T00:00:00Z",
+            "2024-04-31T00:00:00Z",
+            "2024-13-01T00:00:00Z",
+            "2024-00-10T00:00:00Z",
+            "2024-01-00T00:00:00Z",
+            "2024-01-15T24:00:00Z",
+            "2024-01-15T10:60:00Z",
+            "2024-01-15T10:30:60Z"
+    })
+    void outOfRangeFieldsAreRejected(String text) {
+        assertThrows(IllegalArgumentException.class, () -> TimestampParser.parseEpochMicros(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "2024-01-15",
+            "2024/01/15T10:30:45Z",
+            "2024-01-15X10:30:45Z",
+            "2024-01-15T10:3a:45Z",
+            "2024-01-15T10:30:45.Z",
+            "2024-01-15T10:30:45+3",
+            "2024-01-15T10:30:45+03:3",
+            "2024-01-15T10:30:45Zjunk"
+    })
+    void malformedTextIsRejected(String text) {
+        assertThrows(IllegalArgumentException.class, () -> TimestampParser.parseEpochMicros(text));
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
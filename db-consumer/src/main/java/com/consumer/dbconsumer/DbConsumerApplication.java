@@ -3,9 +3,11 @@ package com.consumer.dbconsumer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableKafka
+@EnableScheduling // RatePartitionManager bakımı
 public class DbConsumerApplication {
 
     public static void main(String[] args) {
@@ -1,96 +1,67 @@
 package com.consumer.dbconsumer;
 
+import com.simulator.common.RateTick;
+import com.simulator.common.latency.LatencyTracker;
+import com.simulator.common.latency.TickStamps;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.sql.Timestamp;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class KafkaDbConsumer {
 
-    private final RateRepository rateRepository; // DB'ye yazma için repository
+    private final RateBatchWriter batchWriter; // DB'ye toplu yazma
+    private final LatencyTracker latency; // null ise gecikme ölçülmez (latency.enabled=false)
     private static final Logger logger = LogManager.getLogger(KafkaDbConsumer.class);
 
-    // Constructor injection ile repository alınır
-    public KafkaDbConsumer(RateRepository rateRepository) {
-        this.rateRepository = rateRepository;
+    // Constructor injection ile batch writer alınır
+    public KafkaDbConsumer(RateBatchWriter batchWriter, ObjectProvider<LatencyTracker> latency) {
+        this.batchWriter = batchWriter;
+        this.latency = latency.getIfAvailable();
     }
 
-    // Kafka'dan "rates-topic" topic'ini dinler, her mesaj consume metoduna düşer
-    @KafkaListener(topics = "rates-topic", groupId = "db-writer-group")
-    public void consume(String message) {
-        logger.info("[DB-Consumer] Received from Kafka: {}", message);
-
-        try {
-            // Mesajı parçala
-            String[] parts = message.split("\\|");
-            if (parts.length < 4) {
-                logger.warn("[DB-Consumer] Invalid message format: {}", message);
-                return;
-            }
-
-            // Rate bilgilerini al
-            String rateName = parts[0];
-            Double bid = Double.parseDouble(parts[1]);
-            Double ask = Double.parseDouble(parts[2]);
-            Timestamp rateUpdateTime = parseTimestamp(parts[3]);
-
-            // DB entity oluştur
-            RateEntity entity = new RateEntity();
-            entity.setRateName(rateName);
-            entity.setBid(bid);
-            entity.setAsk(ask);
-            entity.setRateUpdatetime(rateUpdateTime); // rate’in timestamp’i
-            entity.setDbUpdatetime(new Timestamp(System.currentTimeMillis())); // DB'ye yazıldığı an
-
-            // DB'ye kaydet
-            rateRepository.save(entity);
-            logger.info("[DB-Consumer] Saved to DB: {}", entity);
-
-        } catch (Exception e) {
-            logger.error("[DB-Consumer] Error parsing/saving message: {}", message, e);
-        }
+    // Ham ve hesaplanan kur topic'lerini dinler; her poll tek liste olarak gelir
+    // Değerler RateTickDeserializer ile çözülür; çözülemeyen kayıtlar null gelir ve RateRecords ile atlanır.
+    // Offset'ler (ack-mode=batch) ancak metod hatasız dönünce commit edilir: yazım başarısız olursa
+    // hata fırlatılır ve aynı poll tekrar işlenir.
+    // Kayıtlar header'larıyla alınır: main-app'in t-sent damgası consume aşamasını ölçmek için gerekir.
+    @KafkaListener(topics = {"${rates.topic.raw:rates-topic}", "${rates.topic.calc:calc-rates-topic}"},
+            groupId = "db-writer-group", batch = "true")
+    public void consume(List<ConsumerRecord<String, RateTick>> records) {
+        long receivedMicros = TickStamps.nowMicros();
+        List<RateTick> rows = RateRecords.ticks(records, logger, "[DB-Consumer]");
+        if (rows.isEmpty())
+            return;
+
+        long start = System.nanoTime();
+        int written = batchWriter.write(rows);
+        if (latency != null)
+            recordLatency(records, receivedMicros);
+        logger.info("[DB-Consumer] Saved batch to DB: rows={} tookMs={}", written,
+                (System.nanoTime() - start) / 1_000_000);
+        logger.debug("[DB-Consumer] Batch first={} last={}", rows.get(0), rows.get(rows.size() - 1));
     }
 
-    /**
-     * Timestamp farklı formatlarda gelebileceği için burada esnek parse yapılır.
-     * Deneme sırası: Instant, nanosecond ISO, millisec ISO, space format
-     */
-    private Timestamp parseTimestamp(String ts) {
-        // 1) ISO string (örn: 2025-08-21T18:38:18Z)
-        try {
-            return Timestamp.from(Instant.parse(ts));
-        } catch (Exception ignored) {}
-
-        // 2) Nanosecond destekli (örn: 2025-08-21T18:38:18.049881900)
-        try {
-            LocalDateTime ldt = LocalDateTime.parse(ts, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS"));
-            return Timestamp.valueOf(ldt);
-        } catch (Exception ignored) {}
-
-        // 3) Alternatif formatlar (millisec veya space)
-        List<String> patterns = Arrays.asList(
-                "yyyy-MM-dd'T'HH:mm:ss.SSS",
-                "yyyy-MM-dd'T'HH:mm:ss",
-                "yyyy-MM-dd HH:mm:ss",
-                "yyyy-MM-dd HH:mm:ss.SSS"
-        );
-
-        for (String p : patterns) {
-            try {
-                LocalDateTime ldt = LocalDateTime.parse(ts, DateTimeFormatter.ofPattern(p));
-                return Timestamp.valueOf(ldt);
-            } catch (Exception ignored) {}
+    // write() döndüğünde transaction commit edilmiştir
+    private void recordLatency(List<ConsumerRecord<String, RateTick>> records, long receivedMicros) {
+        long committedMicros = TickStamps.nowMicros();
+        for (ConsumerRecord<String, RateTick> record : records) {
+            RateTick tick = record.value();
+            if (tick == null)
+                continue;
+            Header sent = record.headers().lastHeader(TickStamps.SENT_HEADER);
+            long sentMicros = sent != null ? TickStamps.fromBytes(sent.value()) : 0;
+            if (sentMicros > 0)
+                latency.record(TickStamps.STAGE_CONSUME, tick.getSymbol(), receivedMicros - sentMicros);
+            latency.record(TickStamps.STAGE_DB_COMMIT, tick.getSymbol(), committedMicros - receivedMicros);
+            latency.record(TickStamps.STAGE_END_TO_END, tick.getSymbol(),
+                    committedMicros - tick.getTimestampMicros());
         }
-
-        // Hiçbiri uymazsa hata fırlat
-        throw new IllegalArgumentException("Unsupported timestamp format: " + ts);
     }
 }
@@ -1,51 +1,40 @@
 package com.consumer.dbconsumer;
 
+import com.simulator.common.RateTick;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.opensearch.action.index.IndexRequest;
-import org.opensearch.action.index.IndexResponse;
-import org.opensearch.client.RequestOptions;
-import org.opensearch.client.RestHighLevelClient;
-import org.opensearch.common.xcontent.XContentType;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class KafkaOpenSearchConsumer {
 
     private static final Logger logger = LogManager.getLogger(KafkaOpenSearchConsumer.class);
 
-    private final RestHighLevelClient client; // OpenSearch istemcisi
+    private final RateIndexer indexer; // OpenSearch bulk indexer
 
-    // Constructor injection ile OpenSearch client alınır
-    public KafkaOpenSearchConsumer(RestHighLevelClient client) {
-        this.client = client;
+    // Constructor injection ile indexer alınır
+    public KafkaOpenSearchConsumer(RateIndexer indexer) {
+        this.indexer = indexer;
     }
 
-    // Kafka'dan "rates-topic" topic'ini dinler
-    @KafkaListener(topics = "rates-topic", groupId = "opensearch-writer-group")
-    public void consume(String message) {
-        logger.info("[Kafka→OS] Received message: {}", message);
-
-        try {
-            // OpenSearch'e yazılacak index isteği oluştur
-            IndexRequest request = new IndexRequest("rates")
-                    .source("{\"message\":\"" + message + "\"}", XContentType.JSON);
-
-            // Indexleme işlemini yap
-            IndexResponse response = client.index(request, RequestOptions.DEFAULT);
-
-            // Başarılı olursa logla
-            if (response.getId() != null) {
-                logger.info("[OpenSearch] Indexed successfully: index={}, id={}",
-                        response.getIndex(), response.getId());
-            } else {
-                // ID dönmezse uyarı logu
-                logger.warn("[OpenSearch] Index response returned null id for message: {}", message);
+    // Ham ve hesaplanan kur topic'lerini dinler; her poll bulk indexer'a aktarılır
+    @KafkaListener(topics = {"${rates.topic.raw:rates-topic}", "${rates.topic.calc:calc-rates-topic}"},
+            groupId = "opensearch-writer-group", batch = "true")
+    public void consume(List<ConsumerRecord<String, RateTick>> records) {
+        int queued = 0;
+        for (RateTick tick : RateRecords.ticks(records, logger, "[Kafka→OS]")) {
+            try {
+                indexer.index(tick);
+                queued++;
+            } catch (Exception e) {
+                // Hata olursa logla
+                logger.error("[OpenSearch] Error queueing tick for indexing: {}", tick, e);
             }
-        } catch (Exception e) {
-            // Hata olursa logla
-            logger.error("[OpenSearch] Error indexing message: {}", message, e);
         }
+        logger.debug("[Kafka→OS] Queued {} ticks for bulk indexing", queued);
     }
 }
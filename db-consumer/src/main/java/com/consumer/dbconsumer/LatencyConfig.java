@@ -0,0 +1,30 @@
+package com.consumer.dbconsumer;
+
+import com.simulator.common.latency.LatencyEndpoint;
+import com.simulator.common.latency.LatencyTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+// Tick gecikme histogramları (consume, db_commit, end_to_end); latency.enabled=false ile kapanır
+@Configuration
+@ConditionalOnProperty(name = "latency.enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyConfig {
+
+    @Bean(destroyMethod = "close")
+    public LatencyTracker latencyTracker(@Value("${latency.report.interval.ms:10000}") long reportIntervalMs) {
+        return new LatencyTracker("db-consumer", reportIntervalMs);
+    }
+
+    // Prometheus formatında /latency; latency.http.port=0 kapatır
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${latency.http.port:9102} > 0")
+    public LatencyEndpoint latencyEndpoint(LatencyTracker tracker,
+                                           @Value("${latency.http.port:9102}") int port) throws IOException {
+        return new LatencyEndpoint(tracker, port);
+    }
+}
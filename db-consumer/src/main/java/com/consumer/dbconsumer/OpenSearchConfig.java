@@ -4,16 +4,19 @@ package com.consumer.dbconsumer;
 import org.apache.http.HttpHost;
 import org.opensearch.client.RestClient;
 import org.opensearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class OpenSearchConfig {
 
-    @Bean
-    public RestHighLevelClient openSearchClient() {
+    @Bean(destroyMethod = "close")
+    public RestHighLevelClient openSearchClient(@Value("${opensearch.host:localhost}") String host,
+                                                @Value("${opensearch.port:9200}") int port,
+                                                @Value("${opensearch.scheme:http}") String scheme) {
         return new RestHighLevelClient(
-                RestClient.builder(new HttpHost("localhost", 9200, "http"))
+                RestClient.builder(new HttpHost(host, port, scheme))
         );
     }
 }
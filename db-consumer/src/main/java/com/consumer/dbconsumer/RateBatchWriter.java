@@ -0,0 +1,61 @@
+package com.consumer.dbconsumer;
+
+import com.simulator.common.RateTick;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes a whole Kafka poll into tbl_rates in one transaction.
+ * <p>
+ * Goes through JDBC instead of {@link RateRepository}: IDENTITY keys stop Hibernate from batching inserts,
+ * while a JDBC batch with the driver's {@code reWriteBatchedInserts=true} becomes a few multi-row INSERTs.
+ */
+@Repository
+public class RateBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tbl_rates (rate_name, bid, ask, rate_updatetime, db_updatetime) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RateBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Inserts all ticks or none; returns the number of rows written. */
+    @Transactional
+    public int write(List<RateTick> ticks) {
+        Timestamp dbUpdatetime = new Timestamp(System.currentTimeMillis()); // DB'ye yazıldığı an
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RateTick tick = ticks.get(i);
+                ps.setString(1, tick.getSymbol());
+                ps.setDouble(2, tick.getBid());
+                ps.setDouble(3, tick.getAsk());
+                ps.setTimestamp(4, toTimestamp(tick.getTimestampMicros()));
+                ps.setTimestamp(5, dbUpdatetime);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ticks.size();
+            }
+        });
+        return ticks.size();
+    }
+
+    // Epoch mikro saniyeyi mikro saniye hassasiyetini koruyarak Timestamp'e çevirir
+    public static Timestamp toTimestamp(long micros) {
+        Timestamp ts = new Timestamp(Math.floorDiv(micros, 1000L));
+        ts.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+        return ts;
+    }
+}
@@ -3,6 +3,7 @@ package com.consumer.dbconsumer;
 import jakarta.persistence.*;
 import java.sql.Timestamp;
 
+// Tablo RatePartitionManager tarafından günlük partition'larla oluşturulur (ddl-auto=none)
 @Entity
 @Table(name = "tbl_rates")
 public class RateEntity {
@@ -0,0 +1,162 @@
+package com.consumer.dbconsumer;
+
+import com.simulator.common.RateTick;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.bulk.BackoffPolicy;
+import org.opensearch.action.bulk.BulkProcessor;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.CreateIndexRequest;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.client.indices.PutMappingRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexes ticks into OpenSearch as typed documents through a {@link BulkProcessor}.
+ * <p>
+ * Requests are grouped until {@code opensearch.bulk.actions} documents, {@code opensearch.bulk.size-mb}
+ * or {@code opensearch.bulk.flush-interval-ms} is reached and sent with the async client; at most
+ * {@code opensearch.bulk.concurrent-requests} bulks are in flight, after that {@link #index} blocks.
+ * The index is created with an explicit mapping on startup (or the fields are added to an existing index).
+ */
+@Component
+public class RateIndexer {
+
+    private static final Logger logger = LogManager.getLogger(RateIndexer.class);
+
+    private final RestHighLevelClient client;
+    private final String index;
+    private final int bulkActions;
+    private final long bulkSizeMb;
+    private final long flushIntervalMs;
+    private final int concurrentRequests;
+    private BulkProcessor processor;
+
+    public RateIndexer(RestHighLevelClient client,
+                       @Value("${opensearch.index:rates}") String index,
+                       @Value("${opensearch.bulk.actions:1000}") int bulkActions,
+                       @Value("${opensearch.bulk.size-mb:5}") long bulkSizeMb,
+                       @Value("${opensearch.bulk.flush-interval-ms:1000}") long flushIntervalMs,
+                       @Value("${opensearch.bulk.concurrent-requests:2}") int concurrentRequests) {
+        this.client = client;
+        this.index = index;
+        this.bulkActions = bulkActions;
+        this.bulkSizeMb = bulkSizeMb;
+        this.flushIntervalMs = flushIntervalMs;
+        this.concurrentRequests = concurrentRequests;
+    }
+
+    @PostConstruct
+    void start() {
+        ensureIndex();
+        processor = BulkProcessor.builder(
+                        (request, listener) -> client.bulkAsync(request, RequestOptions.DEFAULT, listener),
+                        new BulkListener())
+                .setBulkActions(bulkActions)
+                .setBulkSize(new ByteSizeValue(bulkSizeMb, ByteSizeUnit.MB))
+                .setFlushInterval(TimeValue.timeValueMillis(flushIntervalMs))
+                .setConcurrentRequests(concurrentRequests)
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(100), 3))
+                .build();
+        logger.info("[OpenSearch] Bulk indexer started index={} actions={} sizeMb={} flushMs={} concurrent={}",
+                index, bulkActions, bulkSizeMb, flushIntervalMs, concurrentRequests);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (processor != null && !processor.awaitClose(10, TimeUnit.SECONDS))
+            logger.warn("[OpenSearch] Pending bulk requests did not finish before shutdown");
+    }
+
+    /** Queues the tick; blocks only while the in-flight bulk limit is reached. */
+    public void index(RateTick tick) throws IOException {
+        processor.add(new IndexRequest(index).source(document(tick)));
+    }
+
+    // symbol = platform öneki olmadan (USDTRY), rate_name = gelen ad (PF1_USDTRY)
+    static XContentBuilder document(RateTick tick) throws IOException {
+        String rateName = tick.getSymbol();
+        int sep = rateName.indexOf('_');
+        XContentBuilder doc = XContentFactory.jsonBuilder().startObject()
+                .field("symbol", sep >= 0 ? rateName.substring(sep + 1) : rateName)
+                .field("rate_name", rateName);
+        if (sep >= 0)
+            doc.field("platform", rateName.substring(0, sep));
+        return doc.field("subscriber", tick.getSource())
+                .field("bid", tick.getBid())
+                .field("ask", tick.getAsk())
+                .field("event_time", tick.timestamp().toString())
+                .field("sequence", tick.getSequence())
+                .field("calculated", tick.isCalculated())
+                .endObject();
+    }
+
+    static XContentBuilder mapping() throws IOException {
+        return XContentFactory.jsonBuilder().startObject()
+                .startObject("properties")
+                .startObject("symbol").field("type", "keyword").endObject()
+                .startObject("rate_name").field("type", "keyword").endObject()
+                .startObject("platform").field("type", "keyword").endObject()
+                .startObject("subscriber").field("type", "keyword").endObject()
+                .startObject("bid").field("type", "double").endObject()
+                .startObject("ask").field("type", "double").endObject()
+                // Ticks carry microseconds; date_nanos keeps them
+                .startObject("event_time").field("type", "date_nanos").endObject()
+                .startObject("sequence").field("type", "long").endObject()
+                .startObject("calculated").field("type", "boolean").endObject()
+                .endObject()
+                .endObject();
+    }
+
+    // Index yoksa mapping ile oluştur, varsa eksik alanları ekle
+    private void ensureIndex() {
+        try {
+            if (client.indices().exists(new GetIndexRequest(index), RequestOptions.DEFAULT)) {
+                client.indices().putMapping(new PutMappingRequest(index).source(mapping()), RequestOptions.DEFAULT);
+                logger.info("[OpenSearch] Mapping updated for existing index={}", index);
+            } else {
+                client.indices().create(new CreateIndexRequest(index).mapping(mapping()), RequestOptions.DEFAULT);
+                logger.info("[OpenSearch] Created index={} with typed mapping", index);
+            }
+        } catch (Exception e) {
+            // OpenSearch henüz ayakta değilse dinamik mapping ile devam edilir
+            logger.error("[OpenSearch] Could not create or update mapping for index={}", index, e);
+        }
+    }
+
+    private static final class BulkListener implements BulkProcessor.Listener {
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            if (response.hasFailures()) {
+                logger.warn("[OpenSearch] Bulk {} had failures: {}", executionId, response.buildFailureMessage());
+            } else {
+                logger.debug("[OpenSearch] Bulk {} indexed docs={} tookMs={}", executionId,
+                        request.numberOfActions(), response.getTook().millis());
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            logger.error("[OpenSearch] Bulk {} failed, docs={}", executionId, request.numberOfActions(), failure);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.consumer.dbconsumer;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Owns the tbl_rates schema: a table range-partitioned by {@code rate_updatetime} with one partition per day.
+ * <p>
+ * On startup the partitioned table, its indexes and a default partition are created; an older unpartitioned
+ * tbl_rates (from {@code ddl-auto=update}) is renamed to tbl_rates_legacy and left untouched. Every
+ * {@code rates.partition.maintenance-interval-ms} the partitions for yesterday through
+ * {@code rates.partition.days-ahead} days ahead are created, and daily partitions older than
+ * {@code rates.partition.retention-days} are dropped whole instead of deleting rows.
+ * <p>
+ * Indexes are declared on the parent so every partition gets them: a BRIN index on time (a few pages per
+ * partition, since rows arrive in time order) and a btree on (rate_name, rate_updatetime) for per-symbol
+ * range queries. There is no primary key index; ids still come from the column's sequence.
+ */
+@Component
+public class RatePartitionManager {
+
+    private static final Logger logger = LogManager.getLogger(RatePartitionManager.class);
+
+    static final String TABLE = "tbl_rates";
+    static final String LEGACY_TABLE = TABLE + "_legacy";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE; // yyyyMMdd
+
+    // Birden fazla db-consumer aynı anda DDL çalıştırmasın
+    private static final long LOCK_KEY = 0x74626c5f72617465L; // "tbl_rate"
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+            + " id bigserial NOT NULL,"
+            + " rate_name varchar(10) NOT NULL,"
+            + " bid double precision NOT NULL,"
+            + " ask double precision NOT NULL,"
+            + " rate_updatetime timestamp(6) NOT NULL,"
+            + " db_updatetime timestamp(6) NOT NULL"
+            + ") PARTITION BY RANGE (rate_updatetime)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int daysAhead;
+    private final int retentionDays;
+    private final ZoneId zone;
+
+    public RatePartitionManager(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${rates.partition.days-ahead:3}") int daysAhead,
+                                @Value("${rates.partition.retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.daysAhead = Math.max(0, daysAhead);
+        this.retentionDays = retentionDays;
+        // RateBatchWriter Timestamp'leri JVM saat diliminde yazar; gün sınırları da aynı dilimde hesaplanır
+        this.zone = ZoneId.systemDefault();
+    }
+
+    // Kafka listener'ları başlamadan önce çalışır; tablo kurulamazsa uygulama açılmaz
+    @PostConstruct
+    void init() {
+        createSchema();
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${rates.partition.maintenance-interval-ms:3600000}",
+            initialDelayString = "${rates.partition.maintenance-interval-ms:3600000}")
+    void scheduledMaintenance() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            logger.error("[Partition] Maintenance failed", e);
+        }
+    }
+
+    /** Creates upcoming daily partitions and drops the ones past retention. */
+    public void maintain() {
+        LocalDate today = LocalDate.now(zone);
+        int created = 0;
+        // Dün de dahil: gece yarısı civarı geç gelen tick'ler default partition'a düşmesin
+        for (int d = -1; d <= daysAhead; d++) {
+            if (createPartition(today.plusDays(d)))
+                created++;
+        }
+        int dropped = dropExpired(today);
+        logger.info("[Partition] Maintenance done: created={} dropped={} daysAhead={} retentionDays={}",
+                created, dropped, daysAhead, retentionDays);
+    }
+
+    private void createSchema() {
+        tx.executeWithoutResult(status -> {
+            lock();
+            String relkind = jdbcTemplate.query(
+                    "SELECT c.relkind FROM pg_class c WHERE c.oid = to_regclass('" + TABLE + "')",
+                    rs -> rs.next() ? rs.getString(1) : null);
+            if ("r".equals(relkind)) {
+                // Eski Hibernate tablosu: veriler korunur, yeni tablo aynı adla kurulur
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+                jdbcTemplate.execute("ALTER INDEX IF EXISTS " + TABLE + "_pkey RENAME TO " + LEGACY_TABLE + "_pkey");
+                logger.warn("[Partition] Unpartitioned {} renamed to {}; its rows are not migrated",
+                        TABLE, LEGACY_TABLE);
+            }
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + TABLE + "_updatetime_brin ON " + TABLE
+                    + " USING brin (rate_updatetime)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + TABLE + "_name_updatetime_idx ON " + TABLE
+                    + " (rate_name, rate_updatetime)");
+            // Aralık dışı (çok eski / ileri tarihli) tick'ler için
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE
+                    + " DEFAULT");
+        });
+        logger.info("[Partition] {} is range-partitioned by rate_updatetime (zone={})", TABLE, zone);
+    }
+
+    // Her partition ayrı transaction'da: biri başarısız olursa diğerleri etkilenmez
+    private boolean createPartition(LocalDate day) {
+        String name = partitionName(day);
+        try {
+            return Boolean.TRUE.equals(tx.execute(status -> {
+                lock();
+                if (exists(name))
+                    return false;
+                jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE
+                        + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+                logger.info("[Partition] Created {} for {}", name, day);
+                return true;
+            }));
+        } catch (DataAccessException e) {
+            // Genellikle default partition'da bu güne ait satırlar vardır
+            logger.error("[Partition] Could not create {}; move rows for {} out of {} first",
+                    name, day, DEFAULT_PARTITION, e);
+            return false;
+        }
+    }
+
+    private int dropExpired(LocalDate today) {
+        if (retentionDays <= 0)
+            return 0;
+        LocalDate cutoff = today.minusDays(retentionDays);
+        int dropped = 0;
+        for (String name : listPartitions()) {
+            LocalDate day = partitionDay(name);
+            if (day == null || !day.isBefore(cutoff))
+                continue;
+            try {
+                tx.executeWithoutResult(status -> {
+                    lock();
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                });
+                dropped++;
+                logger.info("[Partition] Dropped {} (older than {} days)", name, retentionDays);
+            } catch (DataAccessException e) {
+                logger.error("[Partition] Could not drop {}", name, e);
+            }
+        }
+        return dropped;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = to_regclass('" + TABLE + "')",
+                String.class);
+    }
+
+    private boolean exists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private void lock() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + SUFFIX.format(day);
+    }
+
+    // tbl_rates_p20240131 → 2024-01-31; default ve elle eklenmiş partition'lar için null
+    static LocalDate partitionDay(String name) {
+        if (!name.startsWith(PARTITION_PREFIX) || name.length() != PARTITION_PREFIX.length() + 8)
+            return null;
+        try {
+            return LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.consumer.dbconsumer;
+
+import com.simulator.common.RateTick;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.listener.ListenerUtils;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unwraps a batch that went through {@code ErrorHandlingDeserializer}. A value that could not be decoded, such as
+ * a legacy {@code rate|bid|ask|ts} string record or a corrupt one, arrives as null with the failure in a header.
+ * It is skipped and its offset is committed with the rest of the batch. Each batch logs one warning.
+ */
+public final class RateRecords {
+
+    private static final LogAccessor HEADER_LOG = new LogAccessor(RateRecords.class);
+
+    private RateRecords() {
+    }
+
+    /** The decoded ticks of a batch, in record order; null and undecodable values are logged and left out. */
+    public static List<RateTick> ticks(List<ConsumerRecord<String, RateTick>> records, Logger logger, String label) {
+        List<RateTick> ticks = new ArrayList<>(records.size());
+        ConsumerRecord<String, RateTick> firstSkipped = null;
+        int skipped = 0;
+        for (ConsumerRecord<String, RateTick> record : records) {
+            if (record.value() != null) {
+                ticks.add(record.value());
+            } else if (skipped++ == 0) {
+                firstSkipped = record;
+            }
+        }
+        if (skipped > 0) {
+            DeserializationException cause = ListenerUtils.getExceptionFromHeader(firstSkipped,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, HEADER_LOG);
+            logger.warn("{} Skipped {} records without a decodable value, first {}-{}@{}: {}", label, skipped,
+                    firstSkipped.topic(), firstSkipped.partition(), firstSkipped.offset(),
+                    reason(cause));
+        }
+        return ticks;
+    }
+
+    // DeserializationException sadece "failed to deserialize" der; asıl sebep delegate'in hatasıdır
+    private static String reason(DeserializationException e) {
+        if (e == null)
+            return "null value";
+        return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+}
@@ -0,0 +1,15 @@
+package com.consumer.dbconsumer.candle;
+
+/**
+ * A closed (or, on shutdown, partial) candle. Times are epoch microseconds; {@code firstTick}/{@code lastTick}
+ * are the event times of the ticks that set open and close, so partial candles of the same bucket can be merged.
+ */
+public record Candle(CandleInterval interval,
+                     String symbol,
+                     long bucketStart,
+                     double openBid, double highBid, double lowBid, double closeBid,
+                     double openAsk, double highAsk, double lowAsk, double closeAsk,
+                     int tickCount,
+                     long firstTick,
+                     long lastTick) {
+}
@@ -0,0 +1,246 @@
+package com.consumer.dbconsumer.candle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event-time OHLC aggregation of bid/ask ticks into fixed, epoch-aligned buckets.
+ * <p>
+ * Each symbol has a watermark of {@code max event time - allowed lateness}; a bucket is closed once the
+ * watermark passes its end, and ticks for an already closed bucket are dropped and counted in
+ * {@link #lateDrops()}. A symbol that receives no ticks for {@code idleCloseMicros} has its watermark moved
+ * forward by the idle wall-clock time in {@link #advanceIdle}, so its last candles still close.
+ * <p>
+ * State is kept in flat primitive arrays rather than per-candle objects: for every interval, symbol {@code i}
+ * owns a small ring of {@code lateness / interval + 2} slots at indexes {@code i * slots ... i * slots + slots - 1},
+ * enough for every bucket that can still receive ticks. Only closed candles become objects.
+ * <p>
+ * Not thread-safe; {@link CandleConsumer} serialises access.
+ */
+public class CandleAggregator {
+
+    private static final int INITIAL_SYMBOLS = 64;
+
+    private final long latenessMicros;
+    private final long idleCloseNanos;
+    private final Series[] series;
+
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private String[] symbols = new String[INITIAL_SYMBOLS];
+    private long[] maxEventTime = new long[INITIAL_SYMBOLS];
+    private long[] lastSeenNanos = new long[INITIAL_SYMBOLS];
+    private int symbolCount;
+
+    private final List<Candle> closed = new ArrayList<>();
+    private long lateDrops;
+
+    public CandleAggregator(List<CandleInterval> intervals, long allowedLatenessMicros, long idleCloseMicros) {
+        this.latenessMicros = Math.max(0, allowedLatenessMicros);
+        this.idleCloseNanos = Math.max(0, idleCloseMicros) * 1000L;
+        this.series = new Series[intervals.size()];
+        for (int i = 0; i < series.length; i++)
+            series[i] = new Series(intervals.get(i));
+    }
+
+    /** Adds a tick; {@code eventTime} is epoch microseconds, {@code nowNanos} is {@link System#nanoTime()}. */
+    public void add(String symbol, double bid, double ask, long eventTime, long nowNanos) {
+        int sym = symbolId(symbol);
+        if (eventTime > maxEventTime[sym])
+            maxEventTime[sym] = eventTime;
+        lastSeenNanos[sym] = nowNanos;
+        long watermark = maxEventTime[sym] - latenessMicros;
+        for (Series s : series) {
+            s.advance(sym, watermark);
+            s.add(sym, bid, ask, eventTime);
+        }
+    }
+
+    /** Closes buckets of symbols that have been idle for longer than the idle close time. */
+    public void advanceIdle(long nowNanos) {
+        for (int sym = 0; sym < symbolCount; sym++) {
+            long idleNanos = nowNanos - lastSeenNanos[sym];
+            if (idleNanos < idleCloseNanos)
+                continue;
+            long watermark = maxEventTime[sym] + idleNanos / 1000L - latenessMicros;
+            for (Series s : series)
+                s.advance(sym, watermark);
+        }
+    }
+
+    /** Emits every open bucket as a (possibly partial) candle, e.g. before shutdown. */
+    public void closeAll() {
+        for (Series s : series) {
+            for (int sym = 0; sym < symbolCount; sym++)
+                s.closeAll(sym);
+        }
+    }
+
+    /** Returns and clears the candles closed since the last call. */
+    public List<Candle> drainClosed() {
+        if (closed.isEmpty())
+            return List.of();
+        List<Candle> out = new ArrayList<>(closed);
+        closed.clear();
+        return out;
+    }
+
+    public long lateDrops() {
+        return lateDrops;
+    }
+
+    public int symbolCount() {
+        return symbolCount;
+    }
+
+    private int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id != null)
+            return id;
+        int sym = symbolCount++;
+        if (sym == symbols.length) {
+            int capacity = symbols.length * 2;
+            symbols = Arrays.copyOf(symbols, capacity);
+            maxEventTime = Arrays.copyOf(maxEventTime, capacity);
+            lastSeenNanos = Arrays.copyOf(lastSeenNanos, capacity);
+            for (Series s : series)
+                s.grow(capacity);
+        }
+        symbols[sym] = symbol;
+        maxEventTime[sym] = Long.MIN_VALUE;
+        symbolIds.put(symbol, sym);
+        return sym;
+    }
+
+    // Bir interval'in tüm sembolleri için durum; sembol i'nin slotları [i*slots, i*slots+slots)
+    private final class Series {
+        final CandleInterval interval;
+        final long len;
+        final int slots;
+
+        long[] closedUpTo; // sembol başına: bundan önce başlayan bucket'lar kapandı
+        long[] start;
+        long[] firstTick;
+        long[] lastTick;
+        double[] openBid, highBid, lowBid, closeBid;
+        double[] openAsk, highAsk, lowAsk, closeAsk;
+        int[] count;
+
+        Series(CandleInterval interval) {
+            this.interval = interval;
+            this.len = interval.micros();
+            this.slots = (int) Math.min(1 << 16, latenessMicros / len + 2);
+            closedUpTo = new long[INITIAL_SYMBOLS];
+            Arrays.fill(closedUpTo, Long.MIN_VALUE);
+            int size = INITIAL_SYMBOLS * slots;
+            start = new long[size];
+            firstTick = new long[size];
+            lastTick = new long[size];
+            openBid = new double[size];
+            highBid = new double[size];
+            lowBid = new double[size];
+            closeBid = new double[size];
+            openAsk = new double[size];
+            highAsk = new double[size];
+            lowAsk = new double[size];
+            closeAsk = new double[size];
+            count = new int[size];
+        }
+
+        void grow(int symbolCapacity) {
+            int old = closedUpTo.length;
+            closedUpTo = Arrays.copyOf(closedUpTo, symbolCapacity);
+            Arrays.fill(closedUpTo, old, symbolCapacity, Long.MIN_VALUE);
+            int size = symbolCapacity * slots;
+            start = Arrays.copyOf(start, size);
+            firstTick = Arrays.copyOf(firstTick, size);
+            lastTick = Arrays.copyOf(lastTick, size);
+            openBid = Arrays.copyOf(openBid, size);
+            highBid = Arrays.copyOf(highBid, size);
+            lowBid = Arrays.copyOf(lowBid, size);
+            closeBid = Arrays.copyOf(closeBid, size);
+            openAsk = Arrays.copyOf(openAsk, size);
+            highAsk = Arrays.copyOf(highAsk, size);
+            lowAsk = Arrays.copyOf(lowAsk, size);
+            closeAsk = Arrays.copyOf(closeAsk, size);
+            count = Arrays.copyOf(count, size);
+        }
+
+        void add(int sym, double bid, double ask, long ts) {
+            long bucket = ts - Math.floorMod(ts, len);
+            if (bucket < closedUpTo[sym]) {
+                lateDrops++;
+                return;
+            }
+            int i = index(sym, bucket);
+            if (count[i] > 0 && start[i] != bucket)
+                emit(sym, i); // advance() sonrası olmamalı; slot yine de boşaltılır
+            if (count[i] == 0) {
+                start[i] = bucket;
+                firstTick[i] = lastTick[i] = ts;
+                openBid[i] = highBid[i] = lowBid[i] = closeBid[i] = bid;
+                openAsk[i] = highAsk[i] = lowAsk[i] = closeAsk[i] = ask;
+                count[i] = 1;
+                return;
+            }
+            if (bid > highBid[i]) highBid[i] = bid;
+            if (bid < lowBid[i]) lowBid[i] = bid;
+            if (ask > highAsk[i]) highAsk[i] = ask;
+            if (ask < lowAsk[i]) lowAsk[i] = ask;
+            // Sıra dışı gelen tick'lerde open/close olay zamanına göre belirlenir
+            if (ts < firstTick[i]) {
+                firstTick[i] = ts;
+                openBid[i] = bid;
+                openAsk[i] = ask;
+            }
+            if (ts >= lastTick[i]) {
+                lastTick[i] = ts;
+                closeBid[i] = bid;
+                closeAsk[i] = ask;
+            }
+            count[i]++;
+        }
+
+        // Bitişi watermark'a kadar olan bucket'ları kapatır
+        void advance(int sym, long watermark) {
+            if (watermark == Long.MIN_VALUE)
+                return;
+            long limit = watermark - Math.floorMod(watermark, len); // ilk açık kalan bucket
+            long from = closedUpTo[sym];
+            if (limit <= from)
+                return;
+            if (from != Long.MIN_VALUE) {
+                // Ring'in tamamı taranınca daha eski bucket kalmaz
+                long b = Math.max(from, limit - slots * len);
+                for (; b < limit; b += len) {
+                    int i = index(sym, b);
+                    if (count[i] > 0 && start[i] < limit)
+                        emit(sym, i);
+                }
+            }
+            closedUpTo[sym] = limit;
+        }
+
+        void closeAll(int sym) {
+            int base = sym * slots;
+            for (int i = base; i < base + slots; i++) {
+                if (count[i] > 0)
+                    emit(sym, i);
+            }
+        }
+
+        private int index(int sym, long bucket) {
+            return sym * slots + (int) Math.floorMod(Math.floorDiv(bucket, len), (long) slots);
+        }
+
+        private void emit(int sym, int i) {
+            closed.add(new Candle(interval, symbols[sym], start[i],
+                    openBid[i], highBid[i], lowBid[i], closeBid[i],
+                    openAsk[i], highAsk[i], lowAsk[i], closeAsk[i],
+                    count[i], firstTick[i], lastTick[i]));
+            count[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.consumer.dbconsumer.candle;
+
+import com.consumer.dbconsumer.RateRecords;
+import com.simulator.common.RateTick;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming candle stage: aggregates the raw rate topic into OHLC candles for {@code candles.intervals}
+ * and writes every closed candle through {@link CandleWriter}.
+ * <p>
+ * Event time is the tick timestamp; buckets stay open for {@code candles.allowed-lateness-ms} after their end.
+ * Candles that fail to write are kept and retried with the next batch. Open candles are flushed as partial
+ * candles on shutdown and merged when the bucket continues after restart; after a crash they are lost.
+ */
+@Service
+public class CandleConsumer {
+
+    private static final Logger logger = LogManager.getLogger(CandleConsumer.class);
+
+    // DB uzun süre kapalı kalırsa bekleyen mumlar belleği doldurmasın
+    private static final int MAX_UNWRITTEN = 100_000;
+
+    private final CandleWriter writer;
+    private final List<CandleInterval> intervals;
+    private final CandleAggregator aggregator;
+    private final List<Candle> unwritten = new ArrayList<>();
+    private long written;
+    private long lastLateDrops;
+
+    public CandleConsumer(CandleWriter writer,
+                          @Value("${candles.intervals:1s,1m,5m,1h}") String intervals,
+                          @Value("${candles.allowed-lateness-ms:2000}") long allowedLatenessMs,
+                          @Value("${candles.idle-close-ms:5000}") long idleCloseMs) {
+        this.writer = writer;
+        this.intervals = CandleInterval.parseList(intervals);
+        this.aggregator = new CandleAggregator(this.intervals, allowedLatenessMs * 1000L, idleCloseMs * 1000L);
+        logger.info("[Candles] intervals={} allowedLatenessMs={} idleCloseMs={}",
+                intervals, allowedLatenessMs, idleCloseMs);
+    }
+
+    @PostConstruct
+    void init() {
+        writer.ensureTables(intervals);
+    }
+
+    // Sadece ham kurlar; hesaplanan kurlar tbl_rates'e yazılır ama mumlaştırılmaz
+    @KafkaListener(topics = "${rates.topic.raw:rates-topic}", groupId = "candle-aggregator-group",
+            batch = "true", autoStartup = "${candles.enabled:true}")
+    public void consume(List<ConsumerRecord<String, RateTick>> records) {
+        List<RateTick> ticks = RateRecords.ticks(records, logger, "[Candles]");
+        List<Candle> closed;
+        synchronized (aggregator) {
+            long now = System.nanoTime();
+            for (RateTick tick : ticks)
+                aggregator.add(tick.getSymbol(), tick.getBid(), tick.getAsk(), tick.getTimestampMicros(), now);
+            closed = aggregator.drainClosed();
+        }
+        write(closed);
+    }
+
+    // Tick gelmeyen sembollerin mumlarını da kapatır
+    @Scheduled(fixedDelayString = "${candles.sweep-interval-ms:1000}")
+    void sweep() {
+        List<Candle> closed;
+        long lateDrops;
+        synchronized (aggregator) {
+            aggregator.advanceIdle(System.nanoTime());
+            closed = aggregator.drainClosed();
+            lateDrops = aggregator.lateDrops();
+        }
+        write(closed);
+        if (lateDrops != lastLateDrops) {
+            logger.warn("[Candles] Dropped {} late ticks (total {}) beyond allowed lateness",
+                    lateDrops - lastLateDrops, lateDrops);
+            lastLateDrops = lateDrops;
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        List<Candle> open;
+        synchronized (aggregator) {
+            aggregator.closeAll();
+            open = aggregator.drainClosed();
+        }
+        write(open);
+        if (!unwritten.isEmpty())
+            logger.error("[Candles] {} candles could not be written before shutdown", unwritten.size());
+    }
+
+    private synchronized void write(List<Candle> closed) {
+        unwritten.addAll(closed);
+        if (unwritten.isEmpty())
+            return;
+        try {
+            long start = System.nanoTime();
+            int n = writer.write(unwritten);
+            written += n;
+            unwritten.clear();
+            logger.debug("[Candles] Wrote {} candles in {} us (total {})", n, (System.nanoTime() - start) / 1000, written);
+        } catch (Exception e) {
+            logger.error("[Candles] Could not write {} candles, will retry", unwritten.size(), e);
+            if (unwritten.size() > MAX_UNWRITTEN) {
+                int drop = unwritten.size() - MAX_UNWRITTEN;
+                unwritten.subList(0, drop).clear();
+                logger.error("[Candles] Discarded {} oldest unwritten candles", drop);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.consumer.dbconsumer.candle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A candle bucket length such as {@code 1s}, {@code 5m} or {@code 1h}; buckets are aligned to the epoch.
+ * The label is also the suffix of the candle table ({@code tbl_candles_5m}).
+ */
+public record CandleInterval(String label, long micros) {
+
+    public CandleInterval {
+        if (micros <= 0)
+            throw new IllegalArgumentException("Candle interval must be positive: " + label);
+    }
+
+    public String table() {
+        return "tbl_candles_" + label;
+    }
+
+    /** Parses {@code <n>ms|s|m|h|d}, e.g. {@code 1s}, {@code 15m}. */
+    public static CandleInterval parse(String text) {
+        String label = text.trim().toLowerCase(Locale.ROOT);
+        int unitAt = 0;
+        while (unitAt < label.length() && Character.isDigit(label.charAt(unitAt)))
+            unitAt++;
+        if (unitAt == 0 || unitAt == label.length())
+            throw new IllegalArgumentException("Invalid candle interval: " + text);
+        long n = Long.parseLong(label.substring(0, unitAt));
+        long unitMicros = switch (label.substring(unitAt)) {
+            case "ms" -> 1_000L;
+            case "s" -> 1_000_000L;
+            case "m" -> 60_000_000L;
+            case "h" -> 3_600_000_000L;
+            case "d" -> 86_400_000_000L;
+            default -> throw new IllegalArgumentException("Invalid candle interval unit: " + text);
+        };
+        return new CandleInterval(label, n * unitMicros);
+    }
+
+    /** Parses a comma separated list, e.g. {@code 1s,1m,5m,1h}. */
+    public static List<CandleInterval> parseList(String text) {
+        List<CandleInterval> intervals = new ArrayList<>();
+        for (String part : text.split(",")) {
+            if (!part.isBlank())
+                intervals.add(parse(part));
+        }
+        if (intervals.isEmpty())
+            throw new IllegalArgumentException("No candle intervals configured");
+        return intervals;
+    }
+}
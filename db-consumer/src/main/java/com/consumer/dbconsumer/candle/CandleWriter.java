@@ -0,0 +1,108 @@
+package com.consumer.dbconsumer.candle;
+
+import com.consumer.dbconsumer.RateBatchWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes closed candles into one table per interval ({@code tbl_candles_1s}, {@code tbl_candles_1m}, ...),
+ * one JDBC batch per table in one transaction.
+ * <p>
+ * Rows are upserted on (rate_name, bucket_start) and merged with an existing row: high/low widen, counts add,
+ * and open/close come from whichever side has the earlier first / later last tick. Partial candles flushed on
+ * shutdown or by two consumers around a rebalance therefore combine into the same candle.
+ */
+@Repository
+public class CandleWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CandleWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void ensureTables(List<CandleInterval> intervals) {
+        for (CandleInterval interval : intervals) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + interval.table() + " ("
+                    + " rate_name varchar(10) NOT NULL,"
+                    + " bucket_start timestamp(6) NOT NULL,"
+                    + " open_bid double precision NOT NULL,"
+                    + " high_bid double precision NOT NULL,"
+                    + " low_bid double precision NOT NULL,"
+                    + " close_bid double precision NOT NULL,"
+                    + " open_ask double precision NOT NULL,"
+                    + " high_ask double precision NOT NULL,"
+                    + " low_ask double precision NOT NULL,"
+                    + " close_ask double precision NOT NULL,"
+                    + " tick_count integer NOT NULL,"
+                    + " first_tick timestamp(6) NOT NULL,"
+                    + " last_tick timestamp(6) NOT NULL,"
+                    + " PRIMARY KEY (rate_name, bucket_start))");
+        }
+    }
+
+    /** Upserts all candles or none; returns the number of candles written. */
+    @Transactional
+    public int write(List<Candle> candles) {
+        Map<CandleInterval, List<Candle>> byInterval = new LinkedHashMap<>();
+        for (Candle candle : candles)
+            byInterval.computeIfAbsent(candle.interval(), k -> new ArrayList<>()).add(candle);
+
+        for (Map.Entry<CandleInterval, List<Candle>> entry : byInterval.entrySet()) {
+            List<Candle> rows = entry.getValue();
+            jdbcTemplate.batchUpdate(upsertSql(entry.getKey().table()), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Candle c = rows.get(i);
+                    ps.setString(1, c.symbol());
+                    ps.setTimestamp(2, RateBatchWriter.toTimestamp(c.bucketStart()));
+                    ps.setDouble(3, c.openBid());
+                    ps.setDouble(4, c.highBid());
+                    ps.setDouble(5, c.lowBid());
+                    ps.setDouble(6, c.closeBid());
+                    ps.setDouble(7, c.openAsk());
+                    ps.setDouble(8, c.highAsk());
+                    ps.setDouble(9, c.lowAsk());
+                    ps.setDouble(10, c.closeAsk());
+                    ps.setInt(11, c.tickCount());
+                    ps.setTimestamp(12, RateBatchWriter.toTimestamp(c.firstTick()));
+                    ps.setTimestamp(13, RateBatchWriter.toTimestamp(c.lastTick()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+        }
+        return candles.size();
+    }
+
+    static String upsertSql(String table) {
+        return "INSERT INTO " + table + " AS c (rate_name, bucket_start,"
+                + " open_bid, high_bid, low_bid, close_bid, open_ask, high_ask, low_ask, close_ask,"
+                + " tick_count, first_tick, last_tick)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                + " ON CONFLICT (rate_name, bucket_start) DO UPDATE SET"
+                + " open_bid = CASE WHEN EXCLUDED.first_tick < c.first_tick THEN EXCLUDED.open_bid ELSE c.open_bid END,"
+                + " open_ask = CASE WHEN EXCLUDED.first_tick < c.first_tick THEN EXCLUDED.open_ask ELSE c.open_ask END,"
+                + " close_bid = CASE WHEN EXCLUDED.last_tick >= c.last_tick THEN EXCLUDED.close_bid ELSE c.close_bid END,"
+                + " close_ask = CASE WHEN EXCLUDED.last_tick >= c.last_tick THEN EXCLUDED.close_ask ELSE c.close_ask END,"
+                + " high_bid = GREATEST(c.high_bid, EXCLUDED.high_bid),"
+                + " low_bid = LEAST(c.low_bid, EXCLUDED.low_bid),"
+                + " high_ask = GREATEST(c.high_ask, EXCLUDED.high_ask),"
+                + " low_ask = LEAST(c.low_ask, EXCLUDED.low_ask),"
+                + " tick_count = c.tick_count + EXCLUDED.tick_count,"
+                + " first_tick = LEAST(c.first_tick, EXCLUDED.first_tick),"
+                + " last_tick = GREATEST(c.last_tick, EXCLUDED.last_tick)";
+    }
+}
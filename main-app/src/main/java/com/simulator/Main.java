@@ -1,9 +1,18 @@
 package com.simulator;
 
+import com.simulator.common.RateListener;
+import com.simulator.common.latency.LatencyEndpoint;
+import com.simulator.common.latency.LatencyTracker;
 import com.simulator.mainapp.Coordinator;
 import com.simulator.mainapp.KafkaPublisher;
 import com.simulator.mainapp.RedisClient;
 import com.simulator.mainapp.SubscriberFactory;
+import com.simulator.mainapp.history.TickHistory;
+import com.simulator.mainapp.journal.TickJournal;
+import com.simulator.mainapp.metrics.MeteredRateListener;
+import com.simulator.mainapp.metrics.MetricsEndpoint;
+import com.simulator.mainapp.metrics.MetricsRegistry;
+import com.simulator.mainapp.pipeline.RatePipeline;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -81,9 +90,66 @@ public class Main {
                 : props.getProperty("kafka.bootstrap.servers", "localhost:9092");
 
         // Init Components
-        RedisClient redis = new RedisClient(redisHost, redisPort);
-        KafkaPublisher publisher = new KafkaPublisher(kafkaServers, "rates-topic");
-        Coordinator coordinator = new Coordinator(redis, publisher);
+        RedisClient redis = RedisClient.fromProperties(redisHost, redisPort, props);
+        KafkaPublisher publisher = KafkaPublisher.fromProperties(kafkaServers, props);
+        LatencyTracker latency = null;
+        if (Boolean.parseBoolean(props.getProperty("latency.enabled", "true"))) {
+            // Tick gecikme histogramları; metrics açıksa /metrics çıktısına eklenir
+            latency = LatencyTracker.fromProperties("main-app", props);
+            publisher.setLatencyTracker(latency);
+        }
+        TickHistory history = Boolean.parseBoolean(props.getProperty("history.enabled", "true"))
+                ? TickHistory.fromProperties(props) : null;
+        TickJournal journal = null;
+        if (Boolean.parseBoolean(props.getProperty("journal.enabled", "false"))) {
+            journal = TickJournal.fromProperties(props);
+        }
+        Coordinator coordinator = new Coordinator(redis, publisher, history, journal);
+
+        // Collectors publish into the ring buffer pipeline; shard workers drive the Coordinator
+        RateListener listener = coordinator;
+        RatePipeline pipeline = null;
+        if (Boolean.parseBoolean(props.getProperty("pipeline.enabled", "true"))) {
+            pipeline = RatePipeline.fromProperties(coordinator, props);
+            listener = pipeline;
+        }
+
+        // Kapanışta sıra önemli: önce pipeline durur ki yeni yazım gelmesin, sonra Redis kuyruğu ve Kafka
+        // producer'ı boşaltılır, en son journal diske zorlanır. Ayrı hook'lar paralel çalışacağı için tek hook.
+        RatePipeline stopPipeline = pipeline;
+        TickJournal closeJournal = journal;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (stopPipeline != null)
+                stopPipeline.close();
+            redis.close();
+            publisher.close();
+            if (closeJournal != null)
+                closeJournal.close();
+        }, "main-app-shutdown"));
+
+        if (Boolean.parseBoolean(props.getProperty("metrics.enabled", "true"))) {
+            // Tick sayıları, bağlantı durumu, hesaplama / Redis / Kafka süreleri ve tick gecikmeleri;
+            // metrics.http.port üzerinden tek scrape hedefi /metrics
+            MetricsRegistry metrics = new MetricsRegistry();
+            if (latency != null) {
+                LatencyTracker tracker = latency;
+                metrics.include(() -> LatencyEndpoint.render(tracker));
+            }
+            redis.setMetrics(metrics);
+            publisher.setMetrics(metrics);
+            coordinator.setMetrics(metrics);
+            if (pipeline != null)
+                pipeline.setMetrics(metrics);
+            listener = new MeteredRateListener(listener, metrics);
+            int metricsPort = Integer.parseInt(props.getProperty("metrics.http.port", "9100").trim());
+            if (metricsPort > 0) {
+                try {
+                    new MetricsEndpoint(metrics, metricsPort);
+                } catch (Exception e) {
+                    logger.error("Metrics endpoint could not be started on port {}", metricsPort, e);
+                }
+            }
+        }
 
         // SubscriberFactory
         // We need to pass the Properties or params to SubscriberFactory?
@@ -95,7 +161,7 @@ public class Main {
         // I should update SubscriberFactory to take Properties OR handle classpath.
         // But for Docker, config.properties is a file. So passing configPath is fine.
 
-        SubscriberFactory factory = new SubscriberFactory(coordinator, configPath);
+        SubscriberFactory factory = new SubscriberFactory(listener, configPath);
         factory.startAllSubscribers();
 
         logger.info("System started. Waiting for rate updates...");
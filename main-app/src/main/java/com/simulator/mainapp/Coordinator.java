@@ -4,22 +4,48 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.simulator.common.RateFields;
-import com.simulator.common.RateListener;
+import com.simulator.common.codec.TimestampParser;
+import com.simulator.common.latency.TickStamps;
+import com.simulator.mainapp.formula.DerivedRateEvaluator;
+import com.simulator.mainapp.history.TickHistory;
+import com.simulator.mainapp.journal.TickJournal;
+import com.simulator.mainapp.metrics.MetricsRegistry;
+import com.simulator.mainapp.pipeline.ConflatingListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 // Coordinator implements RateListener so collectors can notify it
-public class Coordinator implements RateListener {
+// RatePipeline önündeyse RAW her tick için, Redis/hesaplama sadece en güncel tick için çalışır
+public class Coordinator implements ConflatingListener {
 
     private static final Logger logger = LogManager.getLogger(Coordinator.class);
 
-    private final RedisClient redis; // replace with your actual Redis client
-    private final Map<String, Map<String, RateFields>> cache = new ConcurrentHashMap<>();
-    private final KafkaPublisher kafkaPublisher;
+    private final RateStore redis; // RedisClient; replay'de Redis'siz bir uygulama olabilir
+    private final Map<String, DerivedRateEvaluator> evaluators = new ConcurrentHashMap<>();
+    private final RatePublisher kafkaPublisher; // KafkaPublisher; replay'de Kafka'sız bir uygulama olabilir
+    private final TickHistory history; // null ise tick geçmişi tutulmaz
+    private final TickJournal journal; // null ise yerel journal yazılmaz
+    private volatile MetricsRegistry.Timer calculationTimer; // null ise hesaplama süresi ölçülmez
 
-    public Coordinator(RedisClient redis, KafkaPublisher kafkaPublisher) {
+    public Coordinator(RateStore redis, RatePublisher kafkaPublisher) {
+        this(redis, kafkaPublisher, null, null);
+    }
+
+    public Coordinator(RateStore redis, RatePublisher kafkaPublisher, TickHistory history, TickJournal journal) {
         this.redis = redis;
         this.kafkaPublisher = kafkaPublisher;
+        this.history = history;
+        this.journal = journal;
+    }
+
+    public TickHistory getHistory() {
+        return history;
+    }
+
+    /** Tick başına türev kur hesaplama süresini {@code rate_calculation_seconds} olarak kaydeder. */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.calculationTimer = metrics.timer("rate_calculation_seconds",
+                "Derived rate calculation time per tick");
     }
 
     @Override
@@ -41,54 +67,91 @@ public class Coordinator implements RateListener {
 
     @Override
     public void onRateUpdate(String subscriberId, String platform, String rateName, RateFields fields) {
+        // Pipeline olmadan doğrudan çağrıldığında her tick iki adımdan da geçer
+        onRawTick(subscriberId, platform, rateName, fields);
+        onLatestTick(subscriberId, platform, rateName, fields);
+    }
+
+    @Override
+    public void onRawTick(String subscriberId, String platform, String rateName, RateFields fields) {
         try {
             // Coordinator gerçekten tick alıyor mu kontrol logu
-            logger.debug("[Coordinator] onRateUpdate sub={} pf={} rate={} bid={} ask={} ts={}",
+            logger.debug("[Coordinator] onRawTick sub={} pf={} rate={} bid={} ask={} ts={}",
                     subscriberId, platform, rateName,
                     fields.getBid(), fields.getAsk(), fields.getTimestamp());
 
-            // ----------------------------
-            // 1) RAW veriyi Redis'e kaydet
-            // ----------------------------
-            String rawKey = "raw:" + subscriberId + ":" + rateName;
-            String rawVal = rateName + "|" + fields.getBid() + "|" + fields.getAsk() + "|" + fields.getTimestamp();
-            redis.set(rawKey, rawVal);
-            logger.info("[Redis] RAW saved -> {} = {}", rawKey, rawVal);
+            // Zaman damgası burada bir kez çözülür; journal, tarihçe ve Kafka aynı değeri kullanır
+            long eventMicros = epochMicros(rateName, fields);
+            fields.setEventMicros(eventMicros);
+            // Pipeline olmadan çağrıldıysa alınma anı burada işaretlenir
+            if (fields.getReceiveMicros() == 0)
+                fields.setReceiveMicros(TickStamps.nowMicros());
+
+            // Her tick önce yerel journal'a yazılır (denetim / tekrar oynatma için)
+            if (journal != null)
+                journal.append(rateName, subscriberId, fields.getBid(), fields.getAsk(), eventMicros,
+                        fields.getReceiveMicros());
+
+            // Son tick'ler bellekte tutulur (kısa vadeli analiz / sorun giderme için)
+            if (history != null)
+                history.record(rateName, fields.getBid(), fields.getAsk(), eventMicros);
 
-            // Kafka'ya RAW publish et
-            String msg = rateName + "|" + fields.getBid() + "|" + fields.getAsk() + "|" + fields.getTimestamp();
-            kafkaPublisher.send(rateName, msg);
-            logger.info("[Kafka] Published -> {}", msg);
+            // Kafka'ya RAW publish et (tarihçe tüketicileri her tick'i almalı)
+            kafkaPublisher.sendRaw(subscriberId, rateName, fields);
+            logger.debug("[Kafka] Published -> {} {}", rateName, fields);
 
+        } catch (Exception e) {
+            logger.error("[Coordinator] Error in onRawTick for rate={}", rateName, e);
+        }
+    }
+
+    @Override
+    public void onLatestTick(String subscriberId, String platform, String rateName, RateFields fields) {
+        try {
             // ----------------------------
-            // 2) Cache'e ekle (hesaplama için)
+            // 1) Abonenin derlenmiş formülleriyle hesapla
+            // Sadece bu tick'ten etkilenen türev kurlar döner ve yayınlanır
             // ----------------------------
-            cache.computeIfAbsent(subscriberId, k -> new ConcurrentHashMap<>()).put(rateName, fields);
+            DerivedRateEvaluator evaluator = evaluators.computeIfAbsent(subscriberId, k -> new DerivedRateEvaluator());
+            // Değerlendiricinin ilk oluşturulması (formül yükleme) süreye dahil edilmez
+            MetricsRegistry.Timer timer = calculationTimer;
+            long start = timer != null ? System.nanoTime() : 0;
+            Map<String, RateFields> calculated = evaluator.update(rateName, fields.getBid(), fields.getAsk());
+            if (timer != null)
+                timer.record(System.nanoTime() - start);
 
             // ----------------------------
-            // 3) UniversalRateCalculator ile hesapla
+            // 2) RAW ve CALC değerlerini Redis'e kaydet
+            // HASH düzeninde ikisi birlikte tek script çağrısıyla yazılır
             // ----------------------------
-            Map<String, RateFields> calculated = UniversalRateCalculator.calculate(cache.get(subscriberId));
+            redis.saveRates(subscriberId, rateName, fields, calculated);
+            // Her tick için çalışır; debug kapalıyken double'lar boxing'e girmesin
+            if (logger.isDebugEnabled())
+                logger.debug("[Redis] RAW saved -> {}:{} {}|{}|{} calc={}", subscriberId, rateName,
+                        fields.getBid(), fields.getAsk(), fields.getTimestamp(), calculated.size());
 
             // ----------------------------
-            // 4) CALC sonuçlarını Redis ve Kafka'ya kaydet
+            // 3) CALC sonuçlarını Kafka'ya yayınla
             // ----------------------------
             for (Map.Entry<String, RateFields> e : calculated.entrySet()) {
-                String calcKey = "calc:" + subscriberId + ":" + e.getKey();
-                String calcVal = e.getKey() + "|" +
-                        e.getValue().getBid() + "|" +
-                        e.getValue().getAsk() + "|" +
-                        e.getValue().getTimestamp();
-
-                redis.set(calcKey, calcVal);
-                kafkaPublisher.send(calcKey, calcVal);
-
-                logger.info("[Redis] CALC saved -> {} = {}", calcKey, calcVal);
-                logger.info("[Kafka] CALC Published -> {} = {}", calcKey, calcVal);
+                // Hesaplanan kurun gecikmesi onu tetikleyen ham tick'in alınma anından ölçülür
+                e.getValue().setReceiveMicros(fields.getReceiveMicros());
+                kafkaPublisher.sendCalculated(subscriberId, e.getKey(), e.getValue());
+                logger.debug("[Kafka] CALC Published -> {}:{} = {}", subscriberId, e.getKey(), e.getValue());
             }
 
         } catch (Exception e) {
-            logger.error("[Coordinator] Error in onRateUpdate for rate={}", rateName, e);
+            logger.error("[Coordinator] Error in onLatestTick for rate={}", rateName, e);
+        }
+    }
+
+    // Okunamayan zaman damgası yerine alınma anı kullanılır
+    private static long epochMicros(String rateName, RateFields fields) {
+        try {
+            return TimestampParser.parseEpochMicros(fields.getTimestamp());
+        } catch (RuntimeException e) {
+            logger.warn("[Coordinator] Invalid timestamp for rate={}: {}", rateName, fields.getTimestamp());
+            return TickStamps.nowMicros();
         }
     }
 
@@ -1,5 +1,12 @@
 package com.simulator.mainapp;
 
+import com.simulator.common.RateFields;
+import com.simulator.common.RateTick;
+import com.simulator.common.codec.RateTickSerializer;
+import com.simulator.common.codec.TimestampParser;
+import com.simulator.common.latency.LatencyTracker;
+import com.simulator.common.latency.TickStamps;
+import com.simulator.mainapp.metrics.MetricsRegistry;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -7,56 +14,216 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class KafkaPublisher {
+public class KafkaPublisher implements RatePublisher {
 
     private static final Logger logger = LogManager.getLogger(KafkaPublisher.class);
 
-    private final KafkaProducer<String, String> producer; // Kafka producer nesnesi
-    private final String topic; // Mesajların gönderileceği topic
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
 
-    // Yapıcı metod: Kafka producer'ı başlatır
+    private final KafkaProducer<String, RateTick> producer; // Kafka producer nesnesi
+    private final String rawTopic; // Platformlardan gelen ham kurlar
+    private final String calcTopic; // Formüllerle hesaplanan kurlar
+    private final long logEvery; // Her N başarılı gönderimden birini info seviyesinde logla, 0 = hiç
+    private final AtomicLong sequence = new AtomicLong(); // Her mesajda bir artan sıra numarası
+    private final AtomicLong sent = new AtomicLong();
+    private volatile LatencyTracker latency; // null ise gecikme ölçülmez ve zaman damgası header'ı eklenmez
+    private volatile MetricsRegistry metrics; // null ise gönderim metrikleri tutulmaz
+    private volatile TopicMetrics rawMetrics;
+    private volatile TopicMetrics calcMetrics;
+
+    // Yapıcı metod: varsayılan producer ayarlarıyla tek topic'e yayınlar
     public KafkaPublisher(String bootstrapServers, String topic) {
-        this.topic = topic;
+        this(bootstrapServers, topic, topic, new Properties(), 0);
+    }
+
+    /**
+     * @param producerOverrides doğrudan KafkaProducer'a geçen ayarlar (linger.ms, batch.size, compression.type ...)
+     * @param logEvery          her N başarılı gönderimden biri loglanır, 0 kapatır
+     */
+    public KafkaPublisher(String bootstrapServers, String rawTopic, String calcTopic, Properties producerOverrides,
+                          long logEvery) {
+        this.rawTopic = rawTopic;
+        this.calcTopic = calcTopic;
+        this.logEvery = logEvery;
 
         Properties props = new Properties();
         // Kafka broker adresi (örn: localhost:9092)
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        // Mesajın key kısmı string olacak
+        // Mesajın key kısmı string olacak (sembol adı)
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        // Mesajın value kısmı string olacak
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        // Mesajın value kısmı ikili RateTick (bkz. RateTickCodec)
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, RateTickSerializer.class.getName());
+        // Batch ayarları: birkaç ms bekleyip büyük, sıkıştırılmış batch'ler gönder
+        props.put(ProducerConfig.LINGER_MS_CONFIG, "5");
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, "65536");
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        props.putAll(producerOverrides);
 
         // Producer nesnesini oluştur
         this.producer = new KafkaProducer<>(props);
-        logger.info("[KafkaPublisher] Initialized for topic={} bootstrapServers={}", topic, bootstrapServers);
+        logger.info("[KafkaPublisher] Initialized rawTopic={} calcTopic={} bootstrapServers={} linger.ms={} batch.size={} compression={}",
+                rawTopic, calcTopic, bootstrapServers, props.get(ProducerConfig.LINGER_MS_CONFIG),
+                props.get(ProducerConfig.BATCH_SIZE_CONFIG), props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    }
+
+    /**
+     * {@code kafka.*} ayarlarından oluşturur: topic.raw (varsayılan rates-topic), topic.calc (calc-rates-topic),
+     * log.sample.every (1000, 0 kapatır) ve {@code kafka.producer.} önekli her ayar, önek atılarak producer'a geçer.
+     */
+    public static KafkaPublisher fromProperties(String bootstrapServers, Properties props) {
+        Properties overrides = new Properties();
+        String prefix = "kafka.producer.";
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(prefix))
+                overrides.put(name.substring(prefix.length()), props.getProperty(name).trim());
+        }
+        return new KafkaPublisher(bootstrapServers,
+                props.getProperty("kafka.topic.raw", "rates-topic").trim(),
+                props.getProperty("kafka.topic.calc", "calc-rates-topic").trim(),
+                overrides,
+                Long.parseLong(props.getProperty("kafka.log.sample.every", "1000").trim()));
+    }
+
+    /**
+     * Gecikme ölçümünü açar: her mesaja {@code t-recv} / {@code t-sent} header'ları eklenir, receive,
+     * coordinator ve kafka_ack aşamaları kaydedilir (bkz. {@link TickStamps}).
+     */
+    public void setLatencyTracker(LatencyTracker latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Gönderim metriklerini açar: topic başına {@code kafka_send_seconds} (send çağrısından callback'e kadar)
+     * ve {@code kafka_send_errors_total}.
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.rawMetrics = new TopicMetrics(metrics, rawTopic);
+        this.calcMetrics = rawTopic.equals(calcTopic) ? rawMetrics : new TopicMetrics(metrics, calcTopic);
+        this.metrics = metrics;
+    }
+
+    // Platformdan gelen ham kuru yayınla; key platform öneki atılmış semboldür (PF1_USDTRY -> USDTRY),
+    // böylece bir sembolün tüm platform tick'leri aynı partition'da sırayla kalır
+    @Override
+    public void sendRaw(String subscriberId, String rateName, RateFields fields) {
+        send(rawTopic, symbol(rateName), toTick(subscriberId, rateName, fields, false), fields.getReceiveMicros());
+    }
+
+    // Formüllerle hesaplanan kuru yayınla; key hesaplanan kurun adıdır
+    @Override
+    public void sendCalculated(String subscriberId, String rateName, RateFields fields) {
+        send(calcTopic, rateName, toTick(subscriberId, rateName, fields, true), fields.getReceiveMicros());
+    }
+
+    private static String symbol(String rateName) {
+        int sep = rateName.indexOf('_');
+        return sep >= 0 ? rateName.substring(sep + 1) : rateName;
+    }
+
+    // Coordinator ham tick'in zaman damgasını zaten çözdüyse (eventMicros) tekrar ayrıştırılmaz
+    private RateTick toTick(String subscriberId, String rateName, RateFields fields, boolean calculated) {
+        long micros = fields.getEventMicros();
+        if (micros == 0) {
+            try {
+                micros = TimestampParser.parseEpochMicros(fields.getTimestamp());
+            } catch (RuntimeException e) {
+                // Okunamayan zaman damgası yerine gönderim anı kullanılır
+                logger.warn("[KafkaPublisher] Invalid timestamp for rate={}: {}", rateName, fields.getTimestamp());
+                Instant now = Instant.now();
+                micros = now.getEpochSecond() * 1_000_000L + now.getNano() / 1000;
+            }
+        }
+        return new RateTick(rateName, subscriberId, fields.getBid(), fields.getAsk(), micros,
+                sequence.incrementAndGet(), calculated);
     }
 
     // Kafka'ya mesaj gönderme metodu
-    public void send(String key, String message) {
-        ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, message);
+    public void send(String topic, String key, RateTick message) {
+        send(topic, key, message, 0);
+    }
+
+    // receiveMicros: tick'in main-app'e ulaştığı an, 0 = bilinmiyor
+    private void send(String topic, String key, RateTick message, long receiveMicros) {
+        ProducerRecord<String, RateTick> record = new ProducerRecord<>(topic, key, message);
+        LatencyTracker tracker = latency;
+        long sentMicros = tracker != null ? stamp(tracker, record, message, receiveMicros) : 0;
+        TopicMetrics topicMetrics = topicMetrics(topic);
+        long sendNanos = topicMetrics != null ? System.nanoTime() : 0;
         try {
             // Asenkron şekilde mesaj gönderiliyor
             producer.send(record, (metadata, exception) -> {
+                if (topicMetrics != null) {
+                    topicMetrics.latency.record(System.nanoTime() - sendNanos);
+                    if (exception != null)
+                        topicMetrics.errors.increment();
+                }
                 if (exception == null) {
-                    // Mesaj başarıyla gönderildiyse log bas
-                    logger.info("[KafkaPublisher] Sent message to topic={} partition={} offset={} key={} value={}",
-                            metadata.topic(), metadata.partition(), metadata.offset(), key, message);
+                    if (tracker != null)
+                        tracker.record(TickStamps.STAGE_KAFKA_ACK, message.getSymbol(),
+                                TickStamps.nowMicros() - sentMicros);
+                    // Her gönderimi loglamak yerine örnekle
+                    if (logEvery > 0 && sent.incrementAndGet() % logEvery == 0)
+                        logger.info("[KafkaPublisher] Sent {} messages, latest topic={} partition={} offset={} key={} value={}",
+                                sent.get(), metadata.topic(), metadata.partition(), metadata.offset(), key, message);
                 } else {
                     // Hata durumunu logla
-                    logger.error("[KafkaPublisher] Failed to send message key={} value={}", key, message, exception);
+                    logger.error("[KafkaPublisher] Failed to send message topic={} key={} value={}", topic, key, message, exception);
                 }
             });
         } catch (Exception e) {
+            if (topicMetrics != null)
+                topicMetrics.errors.increment();
             // Beklenmeyen hata olursa yakala
-            logger.error("[KafkaPublisher] Unexpected error while sending message key={} value={}", key, message, e);
+            logger.error("[KafkaPublisher] Unexpected error while sending message topic={} key={} value={}", topic, key, message, e);
+        }
+    }
+
+    private TopicMetrics topicMetrics(String topic) {
+        MetricsRegistry registry = metrics;
+        if (registry == null)
+            return null;
+        if (topic.equals(rawTopic))
+            return rawMetrics;
+        if (topic.equals(calcTopic))
+            return calcMetrics;
+        return new TopicMetrics(registry, topic);
+    }
+
+    // Header'ları ekler, main-app içindeki aşamaları kaydeder; Kafka'ya teslim anını döner
+    private static long stamp(LatencyTracker tracker, ProducerRecord<String, RateTick> record, RateTick message,
+                              long receiveMicros) {
+        long sentMicros = TickStamps.nowMicros();
+        if (receiveMicros > 0) {
+            record.headers().add(TickStamps.RECEIVE_HEADER, TickStamps.toBytes(receiveMicros));
+            // Hesaplanan kurun zaman damgası hesaplama anıdır; platformdan geliş süresi yalnızca ham kurda
+            if (!message.isCalculated())
+                tracker.record(TickStamps.STAGE_RECEIVE, message.getSymbol(),
+                        receiveMicros - message.getTimestampMicros());
+            tracker.record(TickStamps.STAGE_COORDINATOR, message.getSymbol(), sentMicros - receiveMicros);
+        }
+        record.headers().add(TickStamps.SENT_HEADER, TickStamps.toBytes(sentMicros));
+        return sentMicros;
+    }
+
+    private static final class TopicMetrics {
+        final MetricsRegistry.Timer latency;
+        final MetricsRegistry.Counter errors;
+
+        TopicMetrics(MetricsRegistry registry, String topic) {
+            latency = registry.timer("kafka_send_seconds", "Kafka send to broker callback, successful or not",
+                    "topic", topic);
+            errors = registry.counter("kafka_send_errors_total", "Kafka sends that failed", "topic", topic);
         }
     }
 
-    // Producer'ı kapatma metodu
+    // Producer'ı kapatma metodu; bekleyen kayıtlar gönderilir, broker yoksa en fazla CLOSE_TIMEOUT beklenir
     public void close() {
-        producer.close();
-        logger.info("[KafkaPublisher] Producer closed for topic={}", topic);
+        producer.close(CLOSE_TIMEOUT);
+        logger.info("[KafkaPublisher] Producer closed for topics={},{}", rawTopic, calcTopic);
     }
 }
@@ -0,0 +1,149 @@
+package com.simulator.mainapp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Shared selector loop for PF1 connections.
+// Every PF1NioRateCollector is pinned to one loop, so the number of I/O threads is
+// fixed (PF1_IO_THREADS, default 1) no matter how many subscribers are configured.
+final class PF1EventLoop implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger(PF1EventLoop.class);
+
+    private static final int IO_THREADS = resolveIoThreads();
+    private static final PF1EventLoop[] LOOPS = new PF1EventLoop[IO_THREADS];
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Delayed tasks (reconnects); only touched on the loop thread
+    private final PriorityQueue<Delayed> timers = new PriorityQueue<>(Comparator.comparingLong(Delayed::deadline));
+    private final Consumer<SelectionKey> keyHandler = this::handleKey;
+    private final Thread thread;
+
+    private PF1EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        logger.info("[PF1EventLoop] Started I/O thread {}", name);
+    }
+
+    // Loops are created lazily and handed out round-robin
+    static PF1EventLoop next() {
+        int index = Math.floorMod(NEXT.getAndIncrement(), IO_THREADS);
+        synchronized (LOOPS) {
+            if (LOOPS[index] == null) {
+                try {
+                    LOOPS[index] = new PF1EventLoop("pf1-io-" + index);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot open selector for PF1 event loop", e);
+                }
+            }
+            return LOOPS[index];
+        }
+    }
+
+    private static int resolveIoThreads() {
+        String env = System.getenv("PF1_IO_THREADS");
+        try {
+            return env != null ? Math.max(1, Integer.parseInt(env.trim())) : 1;
+        } catch (NumberFormatException e) {
+            logger.warn("[PF1EventLoop] Invalid PF1_IO_THREADS={}, falling back to 1", env);
+            return 1;
+        }
+    }
+
+    // Runs the task on the loop thread; channel registration and interest changes must happen there
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    // Runs the task on the loop thread after the delay
+    void schedule(Runnable task, long delayMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        execute(() -> timers.add(new Delayed(deadline, task)));
+    }
+
+    SelectionKey register(SelectableChannel channel, int ops, PF1NioRateCollector collector) throws IOException {
+        return channel.register(selector, ops, collector);
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                selector.select(keyHandler, selectTimeoutMs());
+                runTasks();
+                runTimers();
+            } catch (IOException e) {
+                logger.error("[PF1EventLoop] Selector failure on {}", thread.getName(), e);
+            } catch (RuntimeException e) {
+                logger.error("[PF1EventLoop] Unexpected error on {}", thread.getName(), e);
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("[PF1EventLoop] Task failed on {}", thread.getName(), e);
+            }
+        }
+    }
+
+    // 0 blocks until a key is ready or execute() wakes the selector
+    private long selectTimeoutMs() {
+        Delayed next = timers.peek();
+        if (next == null)
+            return 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.deadline() - System.nanoTime()));
+    }
+
+    private void runTimers() {
+        long now = System.nanoTime();
+        while (!timers.isEmpty() && timers.peek().deadline() - now <= 0) {
+            try {
+                timers.poll().task().run();
+            } catch (RuntimeException e) {
+                logger.error("[PF1EventLoop] Scheduled task failed on {}", thread.getName(), e);
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        PF1NioRateCollector collector = (PF1NioRateCollector) key.attachment();
+        try {
+            if (key.isValid() && key.isConnectable()) {
+                collector.onConnectable();
+            }
+            if (key.isValid() && key.isReadable()) {
+                collector.onReadable();
+            }
+            if (key.isValid() && key.isWritable()) {
+                collector.onWritable();
+            }
+        } catch (IOException e) {
+            collector.onChannelError(e);
+        }
+    }
+
+    private record Delayed(long deadline, Runnable task) {
+    }
+}
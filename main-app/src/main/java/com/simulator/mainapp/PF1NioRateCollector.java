@@ -0,0 +1,264 @@
+package com.simulator.mainapp;
+
+import com.simulator.common.IRateCollector;
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Non-blocking PF1 collector. The socket is a SocketChannel served by a shared PF1EventLoop
+// instead of a dedicated reader thread per subscriber. Listener callbacks run on the I/O thread.
+// A dropped or failed connection is reported to the listener and retried on the loop with
+// exponential backoff; subscriptions are sent again once the new connection is up.
+public class PF1NioRateCollector implements IRateCollector {
+
+    private static final Logger logger = LogManager.getLogger(PF1NioRateCollector.class);
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long RECONNECT_MIN_MS = 1000;
+    private static final long RECONNECT_MAX_MS = 30_000;
+
+    private String host = System.getenv("PF1_HOST") != null ? System.getenv("PF1_HOST") : "localhost";
+    private int port = 5001;
+    private String subscriberId;
+    private RateListener listener;
+
+    private final PF1EventLoop loop = PF1EventLoop.next();
+    private final Queue<ByteBuffer> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final PF1TickDecoder decoder = new PF1TickDecoder();
+    private final PF1Tick tick = new PF1Tick();
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    // Set by disconnect(); stops reconnect attempts
+    private volatile boolean stopped;
+
+    // Only touched on the loop thread
+    private SocketChannel channel;
+    private SelectionKey key;
+    private boolean connected;
+    private String platformName;
+    private long reconnectDelayMs = RECONNECT_MIN_MS;
+    private boolean reconnectPending;
+
+    public PF1NioRateCollector() {
+    }
+
+    @Override
+    public void setListener(RateListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void setSubscriberId(String subscriberId) {
+        this.subscriberId = subscriberId;
+    }
+
+    @Override
+    public void connect(String platformName, String userId, String password) {
+        stopped = false;
+        loop.execute(() -> openChannel(platformName));
+    }
+
+    private void openChannel(String platformName) {
+        this.platformName = platformName;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            boolean done = channel.connect(new InetSocketAddress(host, port));
+            key = loop.register(channel, done ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+            if (done) {
+                onConnected();
+            }
+        } catch (IOException e) {
+            logger.error("[PF1NioCollector] Failed to connect to {}:{}", host, port, e);
+            closeChannel();
+            if (listener != null)
+                listener.onConnect(platformName, false);
+            scheduleReconnect();
+        }
+    }
+
+    void onConnectable() throws IOException {
+        try {
+            if (!channel.finishConnect())
+                return;
+        } catch (IOException e) {
+            logger.error("[PF1NioCollector] Failed to connect to {}:{}", host, port, e);
+            closeChannel();
+            if (listener != null)
+                listener.onConnect(platformName, false);
+            scheduleReconnect();
+            return;
+        }
+        onConnected();
+    }
+
+    private void onConnected() throws IOException {
+        connected = true;
+        reconnectDelayMs = RECONNECT_MIN_MS;
+        logger.info("[PF1NioCollector] Connected to {}:{} subscriber={} thread={}",
+                host, port, subscriberId, Thread.currentThread().getName());
+        if (listener != null)
+            listener.onConnect(platformName, true);
+
+        // Writes queued before the connection completed are replaced by the full subscription list,
+        // so a reconnect restores every rate and a first connect sends each one once
+        pendingWrites.clear();
+        for (String rateName : subscriptions)
+            pendingWrites.add(command("subscribe|" + rateName));
+        key.interestOps(SelectionKey.OP_READ);
+        flushWrites();
+    }
+
+    void onReadable() throws IOException {
+        int n = channel.read(readBuffer);
+        if (n < 0) {
+            logger.warn("[PF1NioCollector] Connection closed by {}:{} for subscriber={}", host, port, subscriberId);
+            connectionLost();
+            return;
+        }
+
+        readBuffer.flip();
+        int result;
+        while ((result = decoder.decode(readBuffer, tick)) != PF1TickDecoder.NEED_MORE) {
+            if (result == PF1TickDecoder.CONTROL) {
+                logger.info("[PF1NioCollector] Control message: {}", tick.controlMessage());
+            } else if (result == PF1TickDecoder.TICK) {
+                RateFields fields = new RateFields(tick.bid(), tick.ask(), tick.timestamp());
+                // Per tick: guarded so the doubles are not boxed when debug is off
+                if (logger.isDebugEnabled())
+                    logger.debug("[PF1NioCollector] Rate update sub={} rate={} bid={} ask={} ts={}",
+                            subscriberId, tick.symbol(), fields.getBid(), fields.getAsk(), fields.getTimestamp());
+
+                if (listener != null) {
+                    listener.onRateUpdate(subscriberId, platformName, tick.symbol(), fields);
+                }
+            }
+        }
+        readBuffer.compact();
+
+        if (!readBuffer.hasRemaining()) {
+            logger.error("[PF1NioCollector] Line exceeds {} bytes, dropping buffered data for subscriber={}",
+                    READ_BUFFER_SIZE, subscriberId);
+            readBuffer.clear();
+        }
+    }
+
+    void onWritable() throws IOException {
+        flushWrites();
+    }
+
+    private void flushWrites() throws IOException {
+        if (!connected)
+            return;
+
+        ByteBuffer buf;
+        while ((buf = pendingWrites.peek()) != null) {
+            channel.write(buf);
+            if (buf.hasRemaining()) {
+                // Socket buffer is full, continue when the selector reports OP_WRITE
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            pendingWrites.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    void onChannelError(IOException e) {
+        logger.warn("[PF1NioCollector] I/O error for subscriber={}: {}", subscriberId, e.getMessage());
+        connectionLost();
+    }
+
+    private void connectionLost() {
+        boolean wasConnected = connected;
+        closeChannel();
+        if (wasConnected && listener != null)
+            listener.onDisconnect(platformName, false);
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (stopped || reconnectPending)
+            return;
+        reconnectPending = true;
+        long delay = reconnectDelayMs;
+        reconnectDelayMs = Math.min(delay * 2, RECONNECT_MAX_MS);
+        logger.info("[PF1NioCollector] Reconnecting subscriber={} in {} ms", subscriberId, delay);
+        loop.schedule(() -> {
+            reconnectPending = false;
+            if (!stopped)
+                openChannel(platformName);
+        }, delay);
+    }
+
+    private static ByteBuffer command(String command) {
+        return ByteBuffer.wrap((command + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void send(String command) {
+        pendingWrites.add(command(command));
+        loop.execute(() -> {
+            try {
+                flushWrites();
+            } catch (IOException e) {
+                onChannelError(e);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(String platformName, String rateName) {
+        subscriptions.add(rateName);
+        send("subscribe|" + rateName);
+        logger.info("[PF1NioCollector] Sent subscribe request for rate={}", rateName);
+    }
+
+    @Override
+    public void unsubscribe(String platformName, String rateName) {
+        subscriptions.remove(rateName);
+        send("unsubscribe|" + rateName);
+        logger.info("[PF1NioCollector] Sent unsubscribe request for rate={}", rateName);
+    }
+
+    @Override
+    public void disconnect(String platformName, String user, String password) {
+        stopped = true;
+        loop.execute(() -> {
+            boolean wasConnected = connected;
+            closeChannel();
+            logger.info("[PF1NioCollector] Disconnected subscriber={}", subscriberId);
+            if (wasConnected && listener != null)
+                listener.onDisconnect(platformName, true);
+        });
+    }
+
+    private void closeChannel() {
+        connected = false;
+        pendingWrites.clear();
+        // Kopan bağlantıdan kalan yarım satır yeni bağlantının ilk baytlarına eklenmesin
+        readBuffer.clear();
+        if (key != null)
+            key.cancel();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.error("[PF1NioCollector] Error closing channel for subscriber={}", subscriberId, e);
+            }
+        }
+    }
+}
@@ -6,11 +6,11 @@ import com.simulator.common.RateListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -18,6 +18,8 @@ public class PF1RateCollector implements IRateCollector {
 
     private static final Logger logger = LogManager.getLogger(PF1RateCollector.class);
 
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
     private String host = System.getenv("PF1_HOST") != null ? System.getenv("PF1_HOST") : "localhost";
     private int port = 5001;
     private String subscriberId;
@@ -25,7 +27,11 @@ public class PF1RateCollector implements IRateCollector {
 
     private Socket socket;
     private PrintWriter out;
-    private BufferedReader in;
+    private InputStream in;
+    private volatile boolean closing; // disconnect() çağrıldı; okuma döngüsünün bitmesi kopma sayılmaz
+
+    private final PF1TickDecoder decoder = new PF1TickDecoder();
+    private final PF1Tick tick = new PF1Tick();
 
     private final ExecutorService readerExecutor = Executors.newSingleThreadExecutor();
 
@@ -47,7 +53,7 @@ public class PF1RateCollector implements IRateCollector {
         try {
             socket = new Socket(host, port);
             out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            in = socket.getInputStream();
 
             logger.info("[PF1Collector] Connected to {}:{}", host, port);
 
@@ -65,55 +71,45 @@ public class PF1RateCollector implements IRateCollector {
     }
 
     private void readLoop(String platformName) {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
         try {
-            String line;
-            while ((line = in.readLine()) != null) {
-                logger.debug("[PF1Collector] Received line: {}", line);
-
-                if (line.startsWith("Subscribed") || line.startsWith("Unsubscribed") || line.startsWith("ERROR")) {
-                    logger.info("[PF1Collector] Control message: {}", line);
-                    continue;
-                }
-
-                String[] parts = line.split("\\|");
-                if (parts.length >= 4) {
-                    String rateName = parts[0];
-                    double bid = parseValue(parts[1]);
-                    double ask = parseValue(parts[2]);
-                    String timestamp = parseTimestamp(parts[3]);
-
-                    RateFields fields = new RateFields(bid, ask, timestamp);
-                    logger.info("[PF1Collector] Rate update sub={} rate={} bid={} ask={} ts={}",
-                            subscriberId, rateName, bid, ask, timestamp);
-
-                    if (listener != null) {
-                        listener.onRateUpdate(subscriberId, platformName, rateName, fields);
-                    }
+            int n;
+            while ((n = in.read(buffer.array(), buffer.position(), buffer.remaining())) != -1) {
+                buffer.position(buffer.position() + n);
+                buffer.flip();
+                drainTicks(buffer, platformName);
+                buffer.compact();
+
+                if (!buffer.hasRemaining()) {
+                    logger.error("[PF1Collector] Line exceeds {} bytes, dropping buffered data for subscriber={}",
+                            READ_BUFFER_SIZE, subscriberId);
+                    buffer.clear();
                 }
             }
         } catch (IOException e) {
             logger.warn("[PF1Collector] Connection closed for subscriber={}", subscriberId);
         }
+        // Sunucu bağlantıyı kapattıysa dinleyiciye bildir; disconnect() kendi bildirimini yapar
+        if (!closing && listener != null)
+            listener.onDisconnect(platformName, false);
     }
 
-    private double parseValue(String part) {
-        try {
-            String[] subParts = part.split(":");
-            String valueStr = subParts[subParts.length - 1].replace(",", ".");
-            return Double.parseDouble(valueStr);
-        } catch (Exception e) {
-            logger.error("[PF1Collector] Parse error for part={} : {}", part, e.getMessage());
-            return 0.0;
-        }
-    }
-
-    private String parseTimestamp(String field) {
-        try {
-            String[] p = field.split(":");
-            return p[2];
-        } catch (Exception e) {
-            logger.error("[PF1Collector] Timestamp parse error for field={} : {}", field, e.getMessage());
-            return "";
+    private void drainTicks(ByteBuffer buffer, String platformName) {
+        int result;
+        while ((result = decoder.decode(buffer, tick)) != PF1TickDecoder.NEED_MORE) {
+            if (result == PF1TickDecoder.CONTROL) {
+                logger.info("[PF1Collector] Control message: {}", tick.controlMessage());
+            } else if (result == PF1TickDecoder.TICK) {
+                RateFields fields = new RateFields(tick.bid(), tick.ask(), tick.timestamp());
+                // Per tick: guarded so the doubles are not boxed when debug is off
+                if (logger.isDebugEnabled())
+                    logger.debug("[PF1Collector] Rate update sub={} rate={} bid={} ask={} ts={}",
+                            subscriberId, tick.symbol(), fields.getBid(), fields.getAsk(), fields.getTimestamp());
+
+                if (listener != null) {
+                    listener.onRateUpdate(subscriberId, platformName, tick.symbol(), fields);
+                }
+            }
         }
     }
 
@@ -135,6 +131,7 @@ public class PF1RateCollector implements IRateCollector {
 
     @Override
     public void disconnect(String platformName, String user, String password) {
+        closing = true;
         try {
             if (socket != null)
                 socket.close();
@@ -0,0 +1,95 @@
+package com.simulator.mainapp;
+
+import com.simulator.common.codec.TimestampParser;
+import com.simulator.mainapp.replay.ReplayTick;
+import com.simulator.mainapp.replay.TickSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a file of recorded PF1 lines ({@code PF1_USDTRY|22:number:40.5465|25:number:40.5483|5:timestamp:...}),
+ * decoded with the same {@link PF1TickDecoder} the collectors use. Control and invalid lines are skipped.
+ * PF1 lines carry no subscriber, so every tick is attributed to the given subscriber id.
+ */
+public class PF1RecordingReader implements TickSource {
+
+    private final SeekableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final PF1TickDecoder decoder = new PF1TickDecoder();
+    private final PF1Tick tick = new PF1Tick();
+    private final String subscriberId;
+    private final String platform;
+    private boolean eof;
+    private long lastMicros;
+    private long skipped;
+
+    public PF1RecordingReader(Path file, String subscriberId, String platform) throws IOException {
+        this.channel = Files.newByteChannel(file);
+        this.subscriberId = subscriberId;
+        this.platform = platform;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean next(ReplayTick out) throws IOException {
+        while (true) {
+            int result = decoder.decode(buffer, tick);
+            if (result == PF1TickDecoder.TICK) {
+                String timestamp = tick.timestamp();
+                try {
+                    lastMicros = TimestampParser.parseEpochMicros(timestamp);
+                } catch (RuntimeException e) {
+                    // Okunamayan zaman damgası: önceki tick'in zamanıyla oynatılır
+                }
+                out.set(subscriberId, platform, tick.symbol(), tick.bid(), tick.ask(), timestamp, lastMicros);
+                return true;
+            }
+            if (result != PF1TickDecoder.NEED_MORE) {
+                skipped++;
+                continue;
+            }
+            if (!fill())
+                return false;
+        }
+    }
+
+    /** Control and invalid lines skipped so far. */
+    public long skippedLines() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Tamamlanmamış satırı koruyarak buffer'ı doldurur; dosya bittiyse false
+    private boolean fill() throws IOException {
+        if (eof) {
+            if (!buffer.hasRemaining())
+                return false;
+            // Son satırın sonunda '\n' yoksa eklenir
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                buffer.clear().flip();
+                return false;
+            }
+            buffer.put((byte) '\n').flip();
+            return true;
+        }
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            // Buffer'dan uzun satır: atılır
+            skipped++;
+            buffer.clear();
+        }
+        if (channel.read(buffer) < 0)
+            eof = true;
+        buffer.flip();
+        return true;
+    }
+}
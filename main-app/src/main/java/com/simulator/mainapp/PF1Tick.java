@@ -0,0 +1,45 @@
+package com.simulator.mainapp;
+
+import java.nio.charset.StandardCharsets;
+
+// Reusable holder filled by PF1TickDecoder. One instance per connection, overwritten on every line.
+final class PF1Tick {
+
+    static final int MAX_TIMESTAMP_LENGTH = 64;
+
+    String symbol;
+    double bid;
+    double ask;
+    final byte[] timestamp = new byte[MAX_TIMESTAMP_LENGTH];
+    int timestampLength;
+    String controlMessage;
+
+    String symbol() {
+        return symbol;
+    }
+
+    double bid() {
+        return bid;
+    }
+
+    double ask() {
+        return ask;
+    }
+
+    // Materializes the timestamp; only called at the RateListener boundary
+    String timestamp() {
+        return new String(timestamp, 0, timestampLength, StandardCharsets.US_ASCII);
+    }
+
+    String controlMessage() {
+        return controlMessage;
+    }
+
+    void reset() {
+        symbol = null;
+        bid = Double.NaN;
+        ask = Double.NaN;
+        timestampLength = 0;
+        controlMessage = null;
+    }
+}
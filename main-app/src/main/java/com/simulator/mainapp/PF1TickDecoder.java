@@ -0,0 +1,277 @@
+package com.simulator.mainapp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes PF1 lines straight from a byte buffer.
+ * <p>
+ * Format: {@code PF1_USDTRY|22:number:40.5465|25:number:40.5483|5:timestamp:2025-08-21T18:38:18.049}
+ * (22 = bid, 25 = ask, 5 = timestamp). Both '.' and ',' are accepted as decimal separator.
+ * On the steady-state path (known symbol, plain decimal) nothing is allocated; results are written
+ * into a reused {@link PF1Tick}. Not thread-safe, every connection owns its decoder.
+ */
+final class PF1TickDecoder {
+
+    private static final Logger logger = LogManager.getLogger(PF1TickDecoder.class);
+
+    static final int NEED_MORE = 0;
+    static final int TICK = 1;
+    static final int CONTROL = 2;
+    static final int INVALID = 3;
+
+    private static final int TAG_BID = 22;
+    private static final int TAG_ASK = 25;
+    private static final int TAG_TIMESTAMP = 5;
+
+    private static final byte[] SUBSCRIBED = ascii("Subscribed");
+    private static final byte[] UNSUBSCRIBED = ascii("Unsubscribed");
+    private static final byte[] ERROR = ascii("ERROR");
+
+    // 10^0 .. 10^22 are exactly representable as doubles
+    private static final double[] POW10 = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10.0;
+        }
+    }
+
+    private final SymbolTable symbols = new SymbolTable();
+
+    /**
+     * Decodes the next complete line of a heap buffer in read mode and moves its position past the line.
+     *
+     * @return {@link #NEED_MORE} when no complete line is buffered, otherwise {@link #TICK},
+     *         {@link #CONTROL} or {@link #INVALID}
+     */
+    int decode(ByteBuffer in, PF1Tick out) {
+        byte[] buf = in.array();
+        int base = in.arrayOffset();
+        int start = base + in.position();
+        int limit = base + in.limit();
+
+        int newline = -1;
+        for (int i = start; i < limit; i++) {
+            if (buf[i] == '\n') {
+                newline = i;
+                break;
+            }
+        }
+        if (newline < 0)
+            return NEED_MORE;
+
+        in.position(newline + 1 - base);
+        int end = newline > start && buf[newline - 1] == '\r' ? newline - 1 : newline;
+        if (end == start)
+            return INVALID;
+        return decodeLine(buf, start, end, out);
+    }
+
+    int decodeLine(byte[] buf, int start, int end, PF1Tick out) {
+        out.reset();
+
+        if (startsWith(buf, start, end, SUBSCRIBED) || startsWith(buf, start, end, UNSUBSCRIBED)
+                || startsWith(buf, start, end, ERROR)) {
+            out.controlMessage = new String(buf, start, end - start, StandardCharsets.US_ASCII);
+            return CONTROL;
+        }
+
+        int pos = indexOf(buf, start, end, (byte) '|');
+        if (pos <= start)
+            return invalid(buf, start, end);
+        out.symbol = symbols.intern(buf, start, pos - start);
+
+        boolean hasBid = false;
+        boolean hasAsk = false;
+        while (pos < end) {
+            int fieldStart = pos + 1;
+            int fieldEnd = indexOf(buf, fieldStart, end, (byte) '|');
+            if (fieldEnd < 0)
+                fieldEnd = end;
+
+            // tag:type:value
+            int tag = 0;
+            int p = fieldStart;
+            while (p < fieldEnd && buf[p] >= '0' && buf[p] <= '9') {
+                tag = tag * 10 + (buf[p] - '0');
+                p++;
+            }
+            if (p == fieldStart || p >= fieldEnd || buf[p] != ':')
+                return invalid(buf, start, end);
+            int typeEnd = indexOf(buf, p + 1, fieldEnd, (byte) ':');
+            if (typeEnd < 0)
+                return invalid(buf, start, end);
+            int valueStart = typeEnd + 1;
+
+            switch (tag) {
+                case TAG_BID:
+                    out.bid = parseDecimal(buf, valueStart, fieldEnd);
+                    hasBid = !Double.isNaN(out.bid);
+                    break;
+                case TAG_ASK:
+                    out.ask = parseDecimal(buf, valueStart, fieldEnd);
+                    hasAsk = !Double.isNaN(out.ask);
+                    break;
+                case TAG_TIMESTAMP:
+                    // The value itself contains ':', so everything after the type is kept
+                    int length = Math.min(fieldEnd - valueStart, PF1Tick.MAX_TIMESTAMP_LENGTH);
+                    System.arraycopy(buf, valueStart, out.timestamp, 0, length);
+                    out.timestampLength = length;
+                    break;
+                default:
+                    // unknown tags are skipped
+                    break;
+            }
+            pos = fieldEnd;
+        }
+
+        return hasBid && hasAsk ? TICK : invalid(buf, start, end);
+    }
+
+    // Fast path: up to 18 significant digits, no exponent -> mantissa / 10^scale, which is correctly rounded
+    static double parseDecimal(byte[] buf, int start, int end) {
+        int p = start;
+        boolean negative = false;
+        if (p < end && (buf[p] == '-' || buf[p] == '+')) {
+            negative = buf[p] == '-';
+            p++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean sawDigit = false;
+        for (; p < end; p++) {
+            byte b = buf[p];
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (digits == 18)
+                        return parseDecimalSlow(buf, start, end);
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (scale >= 0)
+                    scale++;
+            } else if ((b == '.' || b == ',') && scale < 0) {
+                scale = 0;
+            } else {
+                return parseDecimalSlow(buf, start, end);
+            }
+        }
+
+        if (!sawDigit)
+            return Double.NaN;
+        if (scale < 0)
+            scale = 0;
+        if (scale >= POW10.length || mantissa >= MAX_EXACT_MANTISSA)
+            return parseDecimalSlow(buf, start, end);
+
+        double value = scale == 0 ? mantissa : mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    private static double parseDecimalSlow(byte[] buf, int start, int end) {
+        try {
+            return Double.parseDouble(new String(buf, start, end - start, StandardCharsets.US_ASCII).replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int invalid(byte[] buf, int start, int end) {
+        logger.warn("[PF1Decoder] Invalid line: {}", new String(buf, start, end - start, StandardCharsets.US_ASCII));
+        return INVALID;
+    }
+
+    private static int indexOf(byte[] buf, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] buf, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length)
+            return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf[start + i] != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Maps symbol bytes to String instances without allocating for symbols seen before
+    static final class SymbolTable {
+
+        private String[] entries = new String[64];
+        private int[] hashes = new int[64];
+        private int size;
+
+        String intern(byte[] buf, int off, int len) {
+            int hash = hash(buf, off, len);
+            int mask = entries.length - 1;
+            int i = hash & mask;
+            String s;
+            while ((s = entries[i]) != null) {
+                if (hashes[i] == hash && matches(s, buf, off, len))
+                    return s;
+                i = (i + 1) & mask;
+            }
+
+            s = new String(buf, off, len, StandardCharsets.US_ASCII);
+            entries[i] = s;
+            hashes[i] = hash;
+            if (++size * 2 > entries.length)
+                grow();
+            return s;
+        }
+
+        private void grow() {
+            String[] oldEntries = entries;
+            int[] oldHashes = hashes;
+            entries = new String[oldEntries.length * 2];
+            hashes = new int[oldEntries.length * 2];
+            int mask = entries.length - 1;
+            for (int j = 0; j < oldEntries.length; j++) {
+                if (oldEntries[j] == null)
+                    continue;
+                int i = oldHashes[j] & mask;
+                while (entries[i] != null)
+                    i = (i + 1) & mask;
+                entries[i] = oldEntries[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+
+        private static int hash(byte[] buf, int off, int len) {
+            int h = 0x811c9dc5;
+            for (int i = off; i < off + len; i++) {
+                h ^= buf[i];
+                h *= 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean matches(String s, byte[] buf, int off, int len) {
+            if (s.length() != len)
+                return false;
+            for (int i = 0; i < len; i++) {
+                if (s.charAt(i) != (char) buf[off + i])
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.simulator.mainapp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Polling engine shared by all PF2 collectors.
+// One keep-alive HttpClient serves every request; each cycle fires all polls asynchronously
+// on a fixed-rate schedule, so a slow response never delays the other collectors or the next cycle.
+// Every collector fetches its whole subscription set with one batch request (GET /api/rates?names=...).
+final class PF2PollingEngine {
+
+    private static final Logger logger = LogManager.getLogger(PF2PollingEngine.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(2000);
+
+    private final String baseUrl;
+    private final long intervalMs;
+    private final HttpClient client;
+    private final ScheduledExecutorService scheduler;
+    private final Set<PF2RateCollector> collectors = ConcurrentHashMap.newKeySet();
+    // A collector whose batch is still waiting for its response is not polled again in the next cycle
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ScheduledFuture<?> cycle;
+
+    private PF2PollingEngine() {
+        String host = System.getenv("PF2_HOST") != null ? System.getenv("PF2_HOST") : "localhost";
+        this.baseUrl = "http://" + host + ":8080/api/rates";
+        this.intervalMs = envLong("PF2_POLL_INTERVAL_MS", 2000);
+        int httpThreads = (int) envLong("PF2_HTTP_THREADS", 4);
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(httpThreads, daemonThreads("pf2-http-"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(httpExecutor)
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("pf2-poller-"));
+
+        logger.info("[PF2PollingEngine] Initialized baseUrl={} interval={}ms httpThreads={}",
+                baseUrl, intervalMs, httpThreads);
+    }
+
+    private static final class Holder {
+        private static final PF2PollingEngine INSTANCE = new PF2PollingEngine();
+    }
+
+    static PF2PollingEngine getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    synchronized void register(PF2RateCollector collector) {
+        collectors.add(collector);
+        if (cycle == null) {
+            cycle = scheduler.scheduleAtFixedRate(this::pollCycle, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void unregister(PF2RateCollector collector) {
+        collectors.remove(collector);
+        if (collectors.isEmpty() && cycle != null) {
+            cycle.cancel(false);
+            cycle = null;
+        }
+    }
+
+    private void pollCycle() {
+        try {
+            for (PF2RateCollector collector : collectors) {
+                poll(collector);
+            }
+        } catch (RuntimeException e) {
+            // An exception here would silently cancel the fixed-rate schedule
+            logger.error("[PF2PollingEngine] Error in poll cycle", e);
+        }
+    }
+
+    private void poll(PF2RateCollector collector) {
+        List<String> rates = collector.subscribedRates();
+        if (rates.isEmpty())
+            return;
+
+        String key = collector.subscriberId();
+        if (!inFlight.add(key)) {
+            logger.debug("[PF2PollingEngine] Skipping {}, previous poll still pending", key);
+            return;
+        }
+
+        String names = URLEncoder.encode(String.join(",", rates), StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?names=" + names))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.remove(key);
+                    if (error != null) {
+                        logger.debug("[PF2PollingEngine] Failed to poll {} rates for {}: {}",
+                                rates.size(), key, error.getMessage());
+                        return;
+                    }
+                    if (response.statusCode() != 200) {
+                        logger.debug("[PF2PollingEngine] Poll for {} returned status={}", key, response.statusCode());
+                        return;
+                    }
+                    collector.parseAndNotify(response.body());
+                });
+    }
+
+    private static long envLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("[PF2PollingEngine] Invalid {}={}, using {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
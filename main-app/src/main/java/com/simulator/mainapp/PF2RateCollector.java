@@ -1,33 +1,30 @@
 package com.simulator.mainapp;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simulator.common.IRateCollector;
 import com.simulator.common.RateFields;
 import com.simulator.common.RateListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 // PF2 platformu için Collector (REST API üzerinden polling yapar)
-public class PF2RateCollector implements IRateCollector, Runnable {
+// Polling is driven by the shared PF2PollingEngine; this class only holds the subscription set.
+public class PF2RateCollector implements IRateCollector {
 
     private static final Logger logger = LogManager.getLogger(PF2RateCollector.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
 
     private RateListener listener;
     private String subscriberId;
 
     // PF2 polls rates, so it needs to know what rates to poll.
     // Since subscribe() method is void and meant to send a command,
-    // we need to store the subscriptions here.
-    private final List<String> subscribedRates = new ArrayList<>();
-
-    private volatile boolean running = false;
-    private Thread pollingThread;
+    // we need to store the subscriptions here. Read concurrently by the polling engine.
+    private final List<String> subscribedRates = new CopyOnWriteArrayList<>();
 
     public PF2RateCollector() {
     }
@@ -42,21 +39,26 @@ public class PF2RateCollector implements IRateCollector, Runnable {
         this.subscriberId = subscriberId;
     }
 
+    String subscriberId() {
+        return subscriberId;
+    }
+
+    List<String> subscribedRates() {
+        return subscribedRates;
+    }
+
     @Override
     public void connect(String platformName, String userId, String password) {
-        running = true;
         if (listener != null)
             listener.onConnect(platformName, true);
-        logger.info("[PF2Collector] Connected (REST polling mode) user={} platform={}", userId, platformName);
+        logger.info("[PF2Collector] Connected user={} platform={}", userId, platformName);
 
-        // Start polling thread
-        pollingThread = new Thread(this);
-        pollingThread.start();
+        startFeed();
     }
 
     @Override
     public void disconnect(String platformName, String userId, String password) {
-        running = false;
+        stopFeed();
         if (listener != null)
             listener.onDisconnect(platformName, true);
         logger.info("[PF2Collector] Disconnected user={} platform={}", userId, platformName);
@@ -67,86 +69,68 @@ public class PF2RateCollector implements IRateCollector, Runnable {
         if (!subscribedRates.contains(rateName)) {
             subscribedRates.add(rateName);
             logger.info("[PF2Collector] Subscribed to {}", rateName);
+            subscriptionsChanged();
         }
     }
 
     @Override
     public void unsubscribe(String platformName, String rateName) {
-        subscribedRates.remove(rateName);
-        logger.info("[PF2Collector] Unsubscribed from {}", rateName);
+        if (subscribedRates.remove(rateName)) {
+            logger.info("[PF2Collector] Unsubscribed from {}", rateName);
+            subscriptionsChanged();
+        }
     }
 
-    @Override
-    public void run() {
-        try {
-            while (running) {
-                // Poll for each subscribed rate
-                // To avoid ConcurrentModificationException if subscribe is called during
-                // iteration
-                List<String> rates = new ArrayList<>(subscribedRates);
-
-                for (String coreRate : rates) {
-                    pollRate(coreRate);
-                }
-
-                Thread.sleep(2000);
-            }
-        } catch (Exception e) {
-            logger.error("[PF2Collector] Error in run loop", e);
-            if (listener != null)
-                listener.onDisconnect("PF2", false);
-        }
+    // Feed hooks, overridden by PF2StreamingRateCollector. The default feed is REST polling.
+    void startFeed() {
+        PF2PollingEngine.getInstance().register(this);
     }
 
-    private void pollRate(String rateName) {
-        try {
-            String host = System.getenv("PF2_HOST") != null ? System.getenv("PF2_HOST") : "localhost";
-            String urlStr = "http://" + host + ":8080/api/rates/" + rateName;
-            URL url = new URL(urlStr);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(2000);
-            conn.setReadTimeout(2000);
-
-            if (conn.getResponseCode() != 200) {
-                return;
-            }
+    void stopFeed() {
+        PF2PollingEngine.getInstance().unregister(this);
+    }
 
-            BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null)
-                sb.append(line);
-            br.close();
+    void subscriptionsChanged() {
+        // The polling engine reads subscribedRates on every cycle
+    }
 
-            String json = sb.toString().trim();
-            if (json.contains("bid") && json.contains("ask")) {
-                parseAndNotify(json);
+    // Accepts a single quote object or the array returned by the batch endpoint
+    void parseAndNotify(String json) {
+        try {
+            JsonNode root = mapper.readTree(json);
+            if (root.isArray()) {
+                for (JsonNode quote : root) {
+                    notifyQuote(quote);
+                }
+            } else {
+                notifyQuote(root);
             }
-
         } catch (Exception e) {
-            logger.debug("[PF2Collector] Failed to poll rate={}: {}", rateName, e.getMessage());
+            logger.error("[PF2Collector] JSON parse error", e);
         }
     }
 
-    private void parseAndNotify(String json) {
-        try {
-            String rateName = json.split("\"rateName\":\"")[1].split("\"")[0];
-            String bidStr = json.split("\"bid\":")[1].split(",")[0].replaceAll("[^0-9.\\-]", "").trim();
-            String askStr = json.split("\"ask\":")[1].split(",")[0].replaceAll("[^0-9.\\-]", "").trim();
-            String ts = json.split("\"timestamp\":\"")[1].split("\"")[0].trim();
+    private void notifyQuote(JsonNode quote) {
+        JsonNode rateNode = quote.get("rateName");
+        JsonNode bidNode = quote.get("bid");
+        JsonNode askNode = quote.get("ask");
+        if (rateNode == null || bidNode == null || askNode == null) {
+            logger.warn("[PF2Collector] Skipping incomplete quote: {}", quote);
+            return;
+        }
 
-            double bid = Double.parseDouble(bidStr);
-            double ask = Double.parseDouble(askStr);
+        String rateName = rateNode.asText();
+        double bid = bidNode.asDouble();
+        double ask = askNode.asDouble();
+        String ts = quote.path("timestamp").asText();
 
-            logger.info("[PF2Collector] Tick rate={} bid={} ask={} ts={}", rateName, bid, ask, ts);
+        // Per tick: guarded so the doubles are not boxed when debug is off
+        if (logger.isDebugEnabled())
+            logger.debug("[PF2Collector] Tick rate={} bid={} ask={} ts={}", rateName, bid, ask, ts);
 
-            if (listener != null) {
-                RateFields fields = new RateFields(bid, ask, ts);
-                listener.onRateUpdate(subscriberId, "PF2", rateName, fields);
-            }
-        } catch (Exception e) {
-            logger.error("[PF2Collector] JSON parse error", e);
+        if (listener != null) {
+            RateFields fields = new RateFields(bid, ask, ts);
+            listener.onRateUpdate(subscriberId, "PF2", rateName, fields);
         }
     }
 }
@@ -0,0 +1,192 @@
+package com.simulator.mainapp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+// PF2 collector in streaming mode (Server-Sent Events, GET /api/rates/stream?names=...).
+// Ticks are delivered to the listener as soon as they arrive instead of once per poll interval.
+// The stream is reopened with backoff when it drops; after repeated failures the subscriber
+// falls back to the shared PF2PollingEngine until the stream delivers data again.
+// Selected per subscriber via subscriber.N.class in config.properties.
+public class PF2StreamingRateCollector extends PF2RateCollector {
+
+    private static final Logger logger = LogManager.getLogger(PF2StreamingRateCollector.class);
+
+    private static final long RECONNECT_MIN_MS = 1000;
+    private static final long RECONNECT_MAX_MS = 30000;
+    private static final long RESUBSCRIBE_DELAY_MS = 100;
+    private static final int FALLBACK_AFTER_FAILURES = 3;
+
+    private final PF2PollingEngine engine = PF2PollingEngine.getInstance();
+
+    // Guarded by this
+    private boolean running;
+    private boolean polling;
+    private boolean reopenPending;
+    private int failures;
+    private long generation;
+    private Flow.Subscription subscription;
+
+    public PF2StreamingRateCollector() {
+    }
+
+    @Override
+    synchronized void startFeed() {
+        running = true;
+        scheduleReopen(0);
+    }
+
+    @Override
+    synchronized void stopFeed() {
+        running = false;
+        closeStream();
+        if (polling) {
+            engine.unregister(this);
+            polling = false;
+        }
+    }
+
+    @Override
+    synchronized void subscriptionsChanged() {
+        // SubscriberFactory subscribes rates one by one right after connect; coalesce into one reopen
+        scheduleReopen(RESUBSCRIBE_DELAY_MS);
+    }
+
+    private void scheduleReopen(long delayMs) {
+        if (!running || reopenPending)
+            return;
+        reopenPending = true;
+        engine.scheduler().schedule(this::openStream, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void openStream() {
+        reopenPending = false;
+        if (!running)
+            return;
+        closeStream();
+
+        List<String> rates = subscribedRates();
+        if (rates.isEmpty())
+            return;
+
+        long streamId = ++generation;
+        String names = URLEncoder.encode(String.join(",", rates), StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(engine.baseUrl() + "/stream?names=" + names))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        logger.info("[PF2StreamCollector] Opening stream for {} rates={}", subscriberId(), rates);
+        engine.client().sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new EventSubscriber(streamId)))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        onStreamFailed(streamId, error.getMessage());
+                    } else if (response.statusCode() != 200) {
+                        onStreamFailed(streamId, "status=" + response.statusCode());
+                    }
+                });
+    }
+
+    private void closeStream() {
+        generation++;
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+    }
+
+    private synchronized void onStreamFailed(long streamId, String reason) {
+        if (streamId != generation || !running)
+            return;
+        // The same failure can be reported by both the response future and the body subscriber
+        closeStream();
+        failures++;
+
+        if (failures >= FALLBACK_AFTER_FAILURES && !polling) {
+            logger.warn("[PF2StreamCollector] Stream unavailable for {} after {} attempts, falling back to polling",
+                    subscriberId(), failures);
+            engine.register(this);
+            polling = true;
+        }
+
+        long delay = Math.min(RECONNECT_MAX_MS, RECONNECT_MIN_MS << Math.min(failures - 1, 5));
+        logger.warn("[PF2StreamCollector] Stream for {} closed ({}), reconnecting in {}ms",
+                subscriberId(), reason, delay);
+        scheduleReopen(delay);
+    }
+
+    private synchronized void onStreamActive(long streamId) {
+        if (streamId != generation)
+            return;
+        if (failures > 0 || polling) {
+            logger.info("[PF2StreamCollector] Stream restored for {}", subscriberId());
+        }
+        failures = 0;
+        if (polling) {
+            engine.unregister(this);
+            polling = false;
+        }
+    }
+
+    // Parses SSE framing: "data:" lines are collected until the blank line that ends the event
+    private final class EventSubscriber implements Flow.Subscriber<String> {
+
+        private final long streamId;
+        private final StringBuilder data = new StringBuilder();
+        private boolean active;
+
+        EventSubscriber(long streamId) {
+            this.streamId = streamId;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            synchronized (PF2StreamingRateCollector.this) {
+                if (streamId != generation) {
+                    s.cancel();
+                    return;
+                }
+                subscription = s;
+            }
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                if (data.length() > 0) {
+                    if (!active) {
+                        active = true;
+                        onStreamActive(streamId);
+                    }
+                    parseAndNotify(data.toString());
+                    data.setLength(0);
+                }
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0)
+                    data.append('\n');
+                data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+            }
+            // event:, id:, retry: and comment lines carry nothing we need
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            onStreamFailed(streamId, throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+            onStreamFailed(streamId, "end of stream");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.simulator.mainapp;
+
+import com.simulator.common.RateFields;
+
+// Coordinator'ın kurları yayınladığı hedef; KafkaPublisher uygular.
+// Replay gibi araçlar Kafka olmadan çalışmak için kendi uygulamasını verebilir.
+public interface RatePublisher {
+
+    // Platformdan gelen ham kur
+    void sendRaw(String subscriberId, String rateName, RateFields fields);
+
+    // Formüllerle hesaplanan kur
+    void sendCalculated(String subscriberId, String rateName, RateFields fields);
+
+    // Hiçbir şey yayınlamayan uygulama
+    RatePublisher NONE = new RatePublisher() {
+        @Override
+        public void sendRaw(String subscriberId, String rateName, RateFields fields) {
+        }
+
+        @Override
+        public void sendCalculated(String subscriberId, String rateName, RateFields fields) {
+        }
+    };
+}
@@ -0,0 +1,17 @@
+package com.simulator.mainapp;
+
+import com.simulator.common.RateFields;
+
+import java.util.Map;
+
+// Coordinator'ın en güncel RAW ve CALC değerlerini sakladığı yer; RedisClient uygular.
+// Replay gibi araçlar Redis olmadan çalışmak için kendi uygulamasını verebilir.
+public interface RateStore {
+
+    // Bir tick'in RAW değeri ve ondan hesaplanan CALC değerleri
+    void saveRates(String subscriberId, String rateName, RateFields raw, Map<String, RateFields> calculated);
+
+    // Hiçbir şey saklamayan uygulama
+    RateStore NONE = (subscriberId, rateName, raw, calculated) -> {
+    };
+}
@@ -1,44 +1,443 @@
 package com.simulator.mainapp;
 
+import com.simulator.common.RateFields;
+import com.simulator.mainapp.metrics.MetricsRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
 
-public class RedisClient {
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Redis yazıcısı: set() çağrıları hiç beklemeden anahtar başına en son değere indirgenir, tek bir flusher
+// thread'i bekleyen anahtarları boyut ya da süre dolunca tek bir MSET ile havuzdan alınan bağlantıya yazar.
+// Redis yavaşlasa ya da kapansa da çağıran thread (pipeline shard'ı) bloklanmaz; flusher her zaman en yeni değeri yazar.
+// HASH düzeninde her abone için raw:<abone> ve calc:<abone> hash'leri tutulur (alan = kur adı); abonenin bekleyen
+// tüm RAW ve CALC alanları tek bir yazımda alan alan birleşir (en yeni değer kazanır) ve tek bir Lua script
+// çağrısıyla yazılır.
+public class RedisClient implements RateStore {
+
+    public enum Layout {
+        // raw:<abone>:<kur> ve calc:<abone>:<kur> string anahtarları, değer "kur|bid|ask|ts"
+        KEYS,
+        // raw:<abone> ve calc:<abone> hash'leri, değer "bid|ask|ts"; tüm anlık görüntü tek HGETALL
+        HASH
+    }
+
+    // KEYS[1] = raw hash, KEYS[2] = calc hash, ARGV[1] = raw alan sayısı, ardından raw ve calc alan/değer çiftleri
+    private static final String SAVE_RATES_SCRIPT =
+            "local n = 1 + 2 * tonumber(ARGV[1]) " +
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 2, n)) " +
+            "if #ARGV > n then redis.call('HSET', KEYS[2], unpack(ARGV, n + 1)) end " +
+            "return (#ARGV - 1) / 2";
 
     private static final Logger logger = LogManager.getLogger(RedisClient.class);
 
-    private Jedis jedis; // Redis bağlantısı için Jedis nesnesi
+    // Hata sonrası bekleme; Redis kapalıyken flusher'ın boşa dönmesini engeller
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final String host;
+    private final int port;
+    private final JedisPool pool; // Bağlantı havuzu; kopan bağlantılar aynı host:port ile yeniden açılır
+    private final Layout layout;
+    // Bekleyen yazım, anahtar başına (SET anahtarı ya da abonenin raw hash'i); flusher aldığında silinir
+    private final Map<String, Write> pending = new ConcurrentHashMap<>();
+    // Bekleyen anahtarlar, geliş sırasıyla; her anahtar pending'de olduğu sürece bir kez bulunur
+    private final BlockingQueue<String> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long metricsIntervalNanos;
+    private final Thread flusher;
+    private volatile boolean running = true;
 
-    // Yapıcı metod -> Redis'e bağlanmayı dener
+    // Metrikler
+    private final AtomicLong dropped = new AtomicLong();
+    private final LongAdder collapsed = new LongAdder();
+    private long flushes;
+    private long keys;
+    private long failures;
+    private long flushNanosTotal;
+    private long flushNanosMax;
+    private long lastMetricsLog = System.nanoTime();
+    // setMetrics çağrılmadıysa null; sadece flusher thread'i kaydeder
+    private volatile MetricsRegistry.Timer msetTimer;
+    private volatile MetricsRegistry.Timer pipelineTimer;
+    private volatile MetricsRegistry.Counter errorCounter;
+
+    // Sadece flusher thread'i kullanır; Redis yeniden başlarsa NOSCRIPT ile tekrar yüklenir
+    private String scriptSha;
+
+    // Yapıcı metod -> varsayılan ayarlarla havuz ve flusher başlatır
     public RedisClient(String host, int port) {
-        connect(host, port);
+        this(host, port, Layout.KEYS, 4, 256, 200, 16384, 30000);
     }
 
-    // Redis'e bağlantı kuran metod
-    private void connect(String host, int port) {
-        try {
-            jedis = new Jedis(host, port); // Redis istemcisi oluştur
-            jedis.connect();               // Bağlantıyı aç
-            logger.info("[RedisClient] Connected to Redis {}:{}", host, port);
+    /**
+     * @param layout            anahtar düzeni, bkz. {@link Layout}
+     * @param poolSize          havuzdaki en fazla bağlantı
+     * @param batchSize         tek MSET içindeki en fazla anahtar
+     * @param flushIntervalUs   ilk yazımdan sonra batch'in dolmasını beklenecek en uzun süre (mikro saniye)
+     * @param queueSize         flusher'a bekleyen en fazla farklı anahtar; aynı anahtara yeni yazım yer kaplamaz
+     * @param metricsIntervalMs flush metrik log aralığı, 0 kapatır
+     */
+    public RedisClient(String host, int port, Layout layout, int poolSize, int batchSize, long flushIntervalUs, int queueSize,
+                       long metricsIntervalMs) {
+        this.host = host;
+        this.port = port;
+        this.layout = layout;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(flushIntervalUs);
+        this.metricsIntervalNanos = TimeUnit.MILLISECONDS.toNanos(metricsIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(poolSize);
+        config.setMaxIdle(poolSize);
+        // testOnBorrow her flush'a bir PING ekler; kırık bağlantıyı flush() içindeki ikinci deneme yakalar
+        config.setTestOnBorrow(false);
+        this.pool = new JedisPool(config, host, port);
+
+        // İlk bağlantıyı dene; başarısız olsa da flusher her batch'te tekrar dener
+        try (Jedis jedis = pool.getResource()) {
+            jedis.ping();
+            logger.info("[RedisClient] Connected to Redis {}:{} layout={}", host, port, layout);
         } catch (Exception e) {
             logger.error("[RedisClient] Failed to connect to Redis {}:{}", host, port, e);
         }
+
+        this.flusher = new Thread(this::runFlusher, "redis-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * {@code redis.*} ayarlarından oluşturur: layout (keys | hash, varsayılan keys), pool.size (4), batch.size (256),
+     * flush.interval.us (200), queue.size (16384), metrics.interval.ms (30000).
+     */
+    public static RedisClient fromProperties(String host, int port, Properties props) {
+        return new RedisClient(host, port,
+                Layout.valueOf(props.getProperty("redis.layout", "keys").trim().toUpperCase()),
+                Integer.parseInt(props.getProperty("redis.pool.size", "4").trim()),
+                Integer.parseInt(props.getProperty("redis.batch.size", "256").trim()),
+                Long.parseLong(props.getProperty("redis.flush.interval.us", "200").trim()),
+                Integer.parseInt(props.getProperty("redis.queue.size", "16384").trim()),
+                Long.parseLong(props.getProperty("redis.metrics.interval.ms", "30000").trim()));
+    }
+
+    /**
+     * Flush metriklerini açar: {@code redis_flush_seconds} (op=mset ya da pipeline), {@code redis_write_errors_total},
+     * {@code redis_queue_depth}, {@code redis_dropped_writes} ve {@code redis_collapsed_writes}.
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        msetTimer = metrics.timer("redis_flush_seconds", "Redis round trip per flush", "op", "mset");
+        pipelineTimer = metrics.timer("redis_flush_seconds", "Redis round trip per flush", "op", "pipeline");
+        errorCounter = metrics.counter("redis_write_errors_total", "Flushes that failed after the retry");
+        metrics.gauge("redis_queue_depth", "Keys waiting for the flusher", this::queueDepth);
+        metrics.gauge("redis_dropped_writes", "Writes dropped because the queue was full", dropped::get);
+        metrics.gauge("redis_collapsed_writes", "Writes replaced by a newer value for the same key before the flush",
+                collapsed::sum);
     }
 
-    // Redis'e değer yazma (SET komutu)
-    public synchronized void set(String key, String value) {
+    // Redis'e değer yazma (SET) -> kuyruğa alır, flusher MSET ile yazar
+    public void set(String key, String value) {
+        enqueue(Write.set(key, value));
+    }
+
+    /**
+     * Bir tick'in RAW değerini ve ondan hesaplanan CALC değerlerini seçili düzende yazar.
+     * HASH düzeninde hepsi tek bir script çağrısıyla atomik olarak yazılır.
+     */
+    @Override
+    public void saveRates(String subscriberId, String rateName, RateFields raw, Map<String, RateFields> calculated) {
+        if (layout == Layout.KEYS) {
+            set("raw:" + subscriberId + ":" + rateName, rateName + "|" + encode(raw));
+            for (Map.Entry<String, RateFields> e : calculated.entrySet())
+                set("calc:" + subscriberId + ":" + e.getKey(), e.getKey() + "|" + encode(e.getValue()));
+            return;
+        }
+
+        Write write = Write.hash("raw:" + subscriberId, "calc:" + subscriberId);
+        write.raw.put(rateName, encode(raw));
+        for (Map.Entry<String, RateFields> e : calculated.entrySet())
+            write.calc.put(e.getKey(), encode(e.getValue()));
+        enqueue(write);
+    }
+
+    /** HASH düzeninde bir abonenin tüm RAW kurları: alan = kur adı, değer = "bid|ask|ts". */
+    public Map<String, String> rawSnapshot(String subscriberId) {
+        return hgetAll("raw:" + subscriberId);
+    }
+
+    /** HASH düzeninde bir abonenin tüm CALC kurları. */
+    public Map<String, String> calcSnapshot(String subscriberId) {
+        return hgetAll("calc:" + subscriberId);
+    }
+
+    public Layout layout() {
+        return layout;
+    }
+
+    private Map<String, String> hgetAll(String key) {
+        try (Jedis jedis = pool.getResource()) {
+            return jedis.hgetAll(key);
+        }
+    }
+
+    private static String encode(RateFields fields) {
+        return fields.getBid() + "|" + fields.getAsk() + "|" + fields.getTimestamp();
+    }
+
+    // Hiç beklemez: anahtar zaten bekliyorsa yeni değer onun üzerine yazılır, kuyruk sadece yeni anahtarlarla dolar.
+    // Birleştirme compute içinde yapılır; flusher kaydı pending'den sildikten sonra ona kimse dokunmaz.
+    private void enqueue(Write write) {
+        pending.compute(write.key, (k, previous) -> {
+            if (previous != null) {
+                collapsed.increment();
+                return previous.merge(write);
+            }
+            if (!queue.offer(k)) {
+                // Redis son değeri tutar; bir sonraki tick aynı anahtarı tekrar yazar
+                if (dropped.getAndIncrement() % 1000 == 0)
+                    logger.warn("[RedisClient] Write queue full, dropped key={} (total dropped={})", write.key,
+                            dropped.get());
+                return null;
+            }
+            return write;
+        });
+    }
+
+    /** Flusher'a bekleyen anahtar sayısı. */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /** Bekleyen yazımları boşaltır ve havuzu kapatır. */
+    public void close() {
+        running = false;
         try {
-            // Eğer bağlantı yoksa ya da kopmuşsa yeniden bağlanmayı dene
-            if (jedis == null || !jedis.isConnected()) {
-                logger.warn("[RedisClient] Redis not connected, reconnecting...");
-                connect("127.0.0.1", 6379); // Default olarak localhost:6379’a bağlan
-            }
-            // Redis’e değer yaz
-            jedis.set(key, value);
-            logger.debug("[RedisClient] SET key={} value={}", key, value);
-        } catch (Exception e) {
-            logger.error("[RedisClient] Error setting key={} value={}", key, value, e);
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.close();
+    }
+
+    private void runFlusher() {
+        List<String> keys = new ArrayList<>(batchSize);
+        List<Write> batch = new ArrayList<>(batchSize);
+        Map<String, String> latest = new LinkedHashMap<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    keys.add(first);
+                    fill(keys);
+                    // Anahtar alındığı anda silinir; sonraki yazım yeni bir bekleyen kayıt açar
+                    for (String key : keys) {
+                        Write write = pending.remove(key);
+                        if (write != null)
+                            batch.add(write);
+                    }
+                    keys.clear();
+                    flush(batch, latest);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            logMetrics();
+        }
+    }
+
+    // Batch batchSize'a ulaşana ya da ilk yazımdan itibaren flushInterval dolana kadar topla
+    private void fill(List<String> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0)
+                continue;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+            String next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Write> batch, Map<String, String> latest) throws InterruptedException {
+        // Aynı anahtara batch içinde birden fazla SET varsa sadece sonuncusu gider; script yazımları sırayla gider
+        List<String[]> scripts = null;
+        int fields = 0;
+        for (Write w : batch) {
+            if (w.raw == null) {
+                latest.put(w.key, w.value);
+            } else {
+                if (scripts == null)
+                    scripts = new ArrayList<>();
+                scripts.add(w.params());
+                fields += w.raw.size() + w.calc.size();
+            }
+        }
+        String[] keysValues = new String[latest.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> e : latest.entrySet()) {
+            keysValues[i++] = e.getKey();
+            keysValues[i++] = e.getValue();
+        }
+        latest.clear();
+        int writes = keysValues.length / 2 + fields;
+
+        // Havuz kırık bağlantıyı atar, ikinci denemede aynı host:port'a yeni bağlantı açılır
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            long start = System.nanoTime();
+            try (Jedis jedis = pool.getResource()) {
+                if (scripts == null) {
+                    jedis.mset(keysValues);
+                } else {
+                    writePipelined(jedis, keysValues, scripts);
+                }
+                long elapsed = System.nanoTime() - start;
+                MetricsRegistry.Timer timer = scripts == null ? msetTimer : pipelineTimer;
+                if (timer != null)
+                    timer.record(elapsed);
+                flushes++;
+                keys += writes;
+                flushNanosTotal += elapsed;
+                if (elapsed > flushNanosMax)
+                    flushNanosMax = elapsed;
+                return;
+            } catch (Exception e) {
+                if (attempt == 2) {
+                    failures++;
+                    MetricsRegistry.Counter errors = errorCounter;
+                    if (errors != null)
+                        errors.increment();
+                    logger.error("[RedisClient] Error writing {} keys to Redis {}:{}", writes, host, port, e);
+                    Thread.sleep(RETRY_BACKOFF_MS);
+                } else {
+                    logger.warn("[RedisClient] Redis write failed, retrying on a new connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // MSET ve script çağrıları tek round trip'te gider
+    private void writePipelined(Jedis jedis, String[] keysValues, List<String[]> scripts) {
+        if (scriptSha == null)
+            scriptSha = jedis.scriptLoad(SAVE_RATES_SCRIPT);
+
+        Pipeline pipeline = jedis.pipelined();
+        if (keysValues.length > 0)
+            pipeline.mset(keysValues);
+        for (String[] params : scripts)
+            pipeline.evalsha(scriptSha, 2, params);
+        if (!hasNoScript(pipeline.syncAndReturnAll()))
+            return;
+
+        // Redis yeniden başlamış ya da script cache temizlenmiş; yükle ve script yazımlarını tekrarla
+        logger.warn("[RedisClient] Script cache missing on Redis {}:{}, reloading", host, port);
+        scriptSha = jedis.scriptLoad(SAVE_RATES_SCRIPT);
+        Pipeline retry = jedis.pipelined();
+        for (String[] params : scripts)
+            retry.evalsha(scriptSha, 2, params);
+        hasNoScript(retry.syncAndReturnAll());
+    }
+
+    // Pipeline hata döndürdüyse fırlatır; sadece NOSCRIPT hataları varsa true döner
+    private static boolean hasNoScript(List<Object> results) {
+        boolean noScript = false;
+        for (Object result : results) {
+            if (result instanceof JedisDataException) {
+                JedisDataException error = (JedisDataException) result;
+                if (error.getMessage() == null || !error.getMessage().startsWith("NOSCRIPT"))
+                    throw error;
+                noScript = true;
+            }
+        }
+        return noScript;
+    }
+
+    private void logMetrics() {
+        if (metricsIntervalNanos <= 0 || System.nanoTime() - lastMetricsLog < metricsIntervalNanos)
+            return;
+        lastMetricsLog = System.nanoTime();
+        logger.info("[RedisClient] flushes={} keys={} avgBatch={} avgFlushUs={} maxFlushUs={} failures={} dropped={} collapsed={} queue={}",
+                flushes, keys, flushes == 0 ? 0 : keys / flushes,
+                flushes == 0 ? 0 : flushNanosTotal / flushes / 1000, flushNanosMax / 1000,
+                failures, dropped.get(), collapsed.sum(), queue.size());
+        flushes = 0;
+        keys = 0;
+        failures = 0;
+        flushNanosTotal = 0;
+        flushNanosMax = 0;
+    }
+
+    private static final class Write {
+        // SET için anahtar; script yazımında abonenin raw hash'i, aynı zamanda birleştirme anahtarı
+        final String key;
+        final String value;
+        // Script yazımı için calc hash ve alanlar; SET için null
+        final String calcKey;
+        final Map<String, String> raw;
+        final Map<String, String> calc;
+
+        private Write(String key, String value, String calcKey, Map<String, String> raw, Map<String, String> calc) {
+            this.key = key;
+            this.value = value;
+            this.calcKey = calcKey;
+            this.raw = raw;
+            this.calc = calc;
+        }
+
+        static Write set(String key, String value) {
+            return new Write(key, value, null, null, null);
+        }
+
+        static Write hash(String rawKey, String calcKey) {
+            return new Write(rawKey, null, calcKey, new LinkedHashMap<>(), new LinkedHashMap<>());
+        }
+
+        // Aynı anahtara gelen daha yeni yazım: SET'te yenisi geçer, script yazımında alanlar birleşir, yeni değer kazanır.
+        // Abonenin tüm kurları tek kayıtta olduğundan farklı kurların ortak CALC alanı eski bir değere dönemez.
+        Write merge(Write newer) {
+            if (raw == null)
+                return newer;
+            raw.putAll(newer.raw);
+            calc.putAll(newer.calc);
+            return this;
+        }
+
+        // evalsha argümanları: raw hash, calc hash, raw alan sayısı, raw çiftleri, calc çiftleri
+        String[] params() {
+            String[] params = new String[3 + (raw.size() + calc.size()) * 2];
+            params[0] = key;
+            params[1] = calcKey;
+            params[2] = String.valueOf(raw.size());
+            int i = 3;
+            for (Map.Entry<String, String> e : raw.entrySet()) {
+                params[i++] = e.getKey();
+                params[i++] = e.getValue();
+            }
+            for (Map.Entry<String, String> e : calc.entrySet()) {
+                params[i++] = e.getKey();
+                params[i++] = e.getValue();
+            }
+            return params;
         }
     }
 }
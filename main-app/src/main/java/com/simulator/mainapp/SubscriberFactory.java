@@ -1,6 +1,7 @@
 package com.simulator.mainapp;
 
 import com.simulator.common.IRateCollector;
+import com.simulator.common.RateListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -12,11 +13,11 @@ public class SubscriberFactory {
 
     private static final Logger logger = LogManager.getLogger(SubscriberFactory.class);
 
-    private final Coordinator coordinator; // Verileri yönetecek ana sınıf
+    private final RateListener coordinator; // Verileri yönetecek ana sınıf (Coordinator veya önündeki RatePipeline)
     private final Properties props; // Konfigürasyon dosyasından okunan değerler
 
     // Yapıcı metod -> config.properties dosyasını oku
-    public SubscriberFactory(Coordinator coordinator, String configPath) throws IOException {
+    public SubscriberFactory(RateListener coordinator, String configPath) throws IOException {
         this.coordinator = coordinator;
         this.props = new Properties();
         try (FileInputStream fis = new FileInputStream(configPath)) {
@@ -0,0 +1,178 @@
+package com.simulator.mainapp.formula;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Currency graph of one subscriber, built from the symbols that have raw quotes.
+ * <p>
+ * Every quoted symbol AAABBB is an edge A -> B and, inverted, B -> A. Routes are the fewest-hop paths;
+ * among equally short paths the one with the tightest combined relative spread (measured when the graph
+ * is built) wins. The graph is rebuilt only when the set of quoted symbols changes, so evaluating a
+ * route on a tick is a walk over its cached legs.
+ */
+final class CurrencyGraph {
+
+    // Spread used for a leg that has no valid quote yet
+    private static final double UNKNOWN_SPREAD = 1.0;
+
+    private static final class Edge {
+        final int to;
+        final int slot;
+        final boolean inverted;
+        final double spread;
+
+        Edge(int to, int slot, boolean inverted, double spread) {
+            this.to = to;
+            this.slot = slot;
+            this.inverted = inverted;
+            this.spread = spread;
+        }
+    }
+
+    private final Map<String, Integer> currencies = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<List<Edge>> edges = new ArrayList<>();
+
+    CurrencyGraph(QuoteBook book) {
+        for (int slot = 0; slot < book.size(); slot++) {
+            String symbol = book.symbol(slot);
+            if (symbol.length() != 6 || !book.hasQuotes(slot))
+                continue;
+
+            int from = node(symbol.substring(0, 3));
+            int to = node(symbol.substring(3, 6));
+            if (from == to)
+                continue;
+
+            double bid = book.bid(slot);
+            double ask = book.ask(slot);
+            double spread = bid > 0 && ask > 0 ? Math.abs(ask - bid) / ((ask + bid) / 2.0) : UNKNOWN_SPREAD;
+            edges.get(from).add(new Edge(to, slot, false, spread));
+            edges.get(to).add(new Edge(from, slot, true, spread));
+        }
+    }
+
+    private int node(String currency) {
+        Integer index = currencies.get(currency);
+        if (index != null)
+            return index;
+        currencies.put(currency, names.size());
+        names.add(currency);
+        edges.add(new ArrayList<>());
+        return names.size() - 1;
+    }
+
+    /** Best route from one currency to another, or null when they are not connected. */
+    Route route(String from, String to) {
+        Integer source = currencies.get(from);
+        Integer target = currencies.get(to);
+        if (source == null || target == null || source.equals(target))
+            return null;
+
+        Search search = search(source, -1);
+        if (search.hops[target] < 0)
+            return null;
+
+        int length = search.hops[target];
+        int[] slots = new int[length];
+        boolean[] inverted = new boolean[length];
+        int node = target;
+        for (int i = length - 1; i >= 0; i--) {
+            Edge edge = search.via[node];
+            slots[i] = edge.slot;
+            inverted[i] = edge.inverted;
+            node = search.parent[node];
+        }
+        return new Route(slots, inverted);
+    }
+
+    /**
+     * Intermediate currency for a cross rate base/quote: reachable from both sides without using a
+     * direct base/quote quote, with the fewest total hops and then the tightest spread.
+     * Returns null when there is none.
+     */
+    String anchor(String base, String quote) {
+        Integer b = currencies.get(base);
+        Integer q = currencies.get(quote);
+        if (b == null || q == null || b.equals(q))
+            return null;
+
+        Search fromBase = search(b, q);
+        Search fromQuote = search(q, b);
+        String best = null;
+        int bestHops = Integer.MAX_VALUE;
+        double bestSpread = Double.MAX_VALUE;
+        for (int c = 0; c < names.size(); c++) {
+            if (c == b || c == q || fromBase.hops[c] < 0 || fromQuote.hops[c] < 0)
+                continue;
+            int hops = fromBase.hops[c] + fromQuote.hops[c];
+            double spread = fromBase.spread[c] + fromQuote.spread[c];
+            if (hops < bestHops || (hops == bestHops && spread < bestSpread)) {
+                best = names.get(c);
+                bestHops = hops;
+                bestSpread = spread;
+            }
+        }
+        return best;
+    }
+
+    private static final class Search {
+        final int[] hops;
+        final double[] spread;
+        final int[] parent;
+        final Edge[] via;
+
+        Search(int size) {
+            hops = new int[size];
+            spread = new double[size];
+            parent = new int[size];
+            via = new Edge[size];
+            Arrays.fill(hops, -1);
+        }
+    }
+
+    // BFS by hop count; a node's spread is final once its level is done, so relaxing in BFS order
+    // keeps the tightest path among the shortest ones. The blocked node is never entered.
+    private Search search(int source, int blocked) {
+        Search s = new Search(names.size());
+        s.hops[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (Edge e : edges.get(u)) {
+                if (e.to == blocked)
+                    continue;
+                double spread = s.spread[u] + e.spread;
+                if (s.hops[e.to] < 0) {
+                    s.hops[e.to] = s.hops[u] + 1;
+                    s.spread[e.to] = spread;
+                    s.parent[e.to] = u;
+                    s.via[e.to] = e;
+                    queue.add(e.to);
+                } else if (s.hops[e.to] == s.hops[u] + 1 && spread < s.spread[e.to]) {
+                    s.spread[e.to] = spread;
+                    s.parent[e.to] = u;
+                    s.via[e.to] = e;
+                }
+            }
+        }
+        return s;
+    }
+
+    /** Cached chain of quoted slots; inverted legs use 1/ask as bid and 1/bid as ask. */
+    static final class Route {
+        final int[] slots;
+        final boolean[] inverted;
+
+        Route(int[] slots, boolean[] inverted) {
+            this.slots = slots;
+            this.inverted = inverted;
+        }
+    }
+}
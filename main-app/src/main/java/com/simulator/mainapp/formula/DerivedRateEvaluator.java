@@ -0,0 +1,151 @@
+package com.simulator.mainapp.formula;
+
+import com.simulator.common.RateFields;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derived rate calculation for one subscriber.
+ * <p>
+ * Formulas are bound for every currency pair the subscriber receives; bindings, cross anchors, currency
+ * routes and the {@link DerivedRateGraph} are rebuilt only when a new raw rate appears or the
+ * {@link FormulaRegistry} publishes a new version. A tick updates the {@link QuoteBook} and re-evaluates only the outputs that
+ * depend on the changed slots, with no string handling on the way.
+ */
+public final class DerivedRateEvaluator {
+
+    private static final Logger logger = LogManager.getLogger(DerivedRateEvaluator.class);
+
+    private final FormulaRegistry registry;
+    private final QuoteBook book = new QuoteBook();
+    private final List<String> pairs = new ArrayList<>();
+
+    private DerivedRateGraph graph;
+    private long boundVersion = -1;
+
+    public DerivedRateEvaluator() {
+        this(FormulaRegistry.getInstance());
+    }
+
+    public DerivedRateEvaluator(FormulaRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Applies a raw tick and returns the derived rates affected by it, in formula order; after a topology
+     * change every rate that can be calculated is returned. When several formulas produce the same rate,
+     * the first valid one in {@link DerivedRateGraph} priority order wins, so a quoted pair is always
+     * published at its own quote.
+     */
+    public synchronized Map<String, RateFields> update(String rateName, double bid, double ask) {
+        FormulaSet set = registry.current();
+        boolean rebind = set.version() != boundVersion;
+
+        if (!book.contains(rateName)) {
+            String symbol = book.addRate(rateName);
+            if (symbol.length() >= 6 && !pairs.contains(symbol)) {
+                pairs.add(symbol);
+                rebind = true;
+            }
+        }
+        int slot = book.update(rateName, bid, ask);
+
+        if (rebind) {
+            bind(set);
+            return evaluateAll();
+        }
+        return evaluate(graph.affected(slot));
+    }
+
+    /** Evaluates every derived rate that can currently be calculated. */
+    public synchronized Map<String, RateFields> snapshot() {
+        return graph == null ? Map.of() : evaluateAll();
+    }
+
+    private void bind(FormulaSet set) {
+        CurrencyGraph currencies = new CurrencyGraph(book);
+        List<String> names = new ArrayList<>();
+        List<Expr> bids = new ArrayList<>();
+        List<Expr> asks = new ArrayList<>();
+        List<Integer> ranks = new ArrayList<>();
+        for (String pair : pairs) {
+            String base = pair.substring(0, 3);
+            String quote = pair.substring(3, 6);
+            for (FormulaSet.Group group : set.groups()) {
+                if (group.usesAnchor) {
+                    for (String anchor : set.anchors()) {
+                        if (anchor.equals(FormulaSet.AUTO_ANCHOR))
+                            anchor = currencies.anchor(base, quote);
+                        if (anchor == null)
+                            continue;
+                        bindGroup(group, Map.of("base", base, "quote", quote, "anchor", anchor), pair,
+                                names, bids, asks, ranks);
+                    }
+                } else {
+                    bindGroup(group, Map.of("base", base, "quote", quote), pair, names, bids, asks, ranks);
+                }
+            }
+        }
+        // Binding may have created slots for legs without quotes; route them through the currency graph
+        book.applyRoutes(currencies);
+        graph = new DerivedRateGraph(names, bids, asks, ranks, book);
+        boundVersion = set.version();
+        logger.debug("[DerivedRateEvaluator] Bound {} formulas into {} outputs for {} pairs (version={})",
+                names.size(), graph.size(), pairs.size(), boundVersion);
+    }
+
+    private void bindGroup(FormulaSet.Group group, Map<String, String> placeholders, String pair,
+                           List<String> names, List<Expr> bids, List<Expr> asks, List<Integer> ranks) {
+        String name = group.output;
+        for (Map.Entry<String, String> e : placeholders.entrySet()) {
+            name = name.replace("{" + e.getKey() + "}", e.getValue());
+        }
+        names.add(name);
+        ranks.add(group.usesAnchor ? DerivedRateGraph.RANK_CROSS
+                : name.equals(pair) ? DerivedRateGraph.RANK_DIRECT : DerivedRateGraph.RANK_DERIVED);
+        bids.add(group.bid.bind(placeholders, book));
+        asks.add(group.ask.bind(placeholders, book));
+    }
+
+    private Map<String, RateFields> evaluateAll() {
+        int[] all = new int[graph.size()];
+        for (int i = 0; i < all.length; i++)
+            all[i] = i;
+        return evaluate(all);
+    }
+
+    private Map<String, RateFields> evaluate(int[] outputs) {
+        Map<String, RateFields> result = new LinkedHashMap<>();
+        String timestamp = null;
+        for (int index : outputs) {
+            DerivedRateGraph.Output output = graph.output(index);
+            double bid = Double.NaN;
+            double ask = Double.NaN;
+            for (int p = 0; p < output.bids.length; p++) {
+                double b = output.bids[p].eval(book);
+                double a = output.asks[p].eval(book);
+                if (Double.isFinite(b) && Double.isFinite(a)) {
+                    bid = b;
+                    ask = a;
+                    break;
+                }
+            }
+            if (Double.isNaN(bid))
+                continue;
+            if (timestamp == null)
+                timestamp = Instant.now().toString();
+            result.put(output.name, new RateFields(bid, ask, timestamp));
+        }
+
+        if (result.isEmpty()) {
+            logger.debug("[DerivedRateEvaluator] No derived rates affected. Known symbols={}", book.size());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.simulator.mainapp.formula;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Dependency graph from QuoteBook slots to derived outputs of one subscriber.
+ * <p>
+ * A raw tick changes its own slot and the inverse slot, so {@link #affected(int)} returns, per slot, the
+ * outputs reading either of them. Reading a routed slot counts as reading each of its legs.
+ * The graph is immutable and rebuilt whenever the bindings change (new raw rate or formula reload).
+ */
+final class DerivedRateGraph {
+
+    private static final int[] NONE = new int[0];
+
+    /** A formula that outputs the quoted pair it was bound for (the pair's own quote). */
+    static final int RANK_DIRECT = 0;
+    /** Any other formula without an anchor, e.g. the inverse of another quoted pair. */
+    static final int RANK_DERIVED = 1;
+    /** A formula through an anchor currency; only used when nothing better is valid. */
+    static final int RANK_CROSS = 2;
+
+    /** One derived rate; producers are sorted by rank (then formula order) and the first valid one wins. */
+    static final class Output {
+        final String name;
+        final Expr[] bids;
+        final Expr[] asks;
+
+        private Output(String name, List<Expr> bids, List<Expr> asks) {
+            this.name = name;
+            this.bids = bids.toArray(new Expr[0]);
+            this.asks = asks.toArray(new Expr[0]);
+        }
+    }
+
+    private final Output[] outputs;
+    private final int[][] affected;
+
+    /**
+     * @param names producer output names, in formula order
+     * @param bids  bound bid expressions, parallel to names
+     * @param asks  bound ask expressions, parallel to names
+     * @param ranks producer priority ({@link #RANK_DIRECT} first), parallel to names
+     */
+    DerivedRateGraph(List<String> names, List<Expr> bids, List<Expr> asks, List<Integer> ranks, QuoteBook book) {
+        Map<String, List<Integer>> producers = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            producers.computeIfAbsent(names.get(i), k -> new ArrayList<>()).add(i);
+        }
+        // Stable sort: producers of the same rank keep formula order
+        for (List<Integer> list : producers.values())
+            list.sort(Comparator.comparingInt(ranks::get));
+
+        outputs = new Output[producers.size()];
+        List<TreeSet<Integer>> readers = new ArrayList<>(book.size());
+        for (int s = 0; s < book.size(); s++) {
+            readers.add(new TreeSet<>());
+        }
+
+        int index = 0;
+        for (Map.Entry<String, List<Integer>> e : producers.entrySet()) {
+            List<Expr> outputBids = new ArrayList<>();
+            List<Expr> outputAsks = new ArrayList<>();
+            int outputIndex = index;
+            for (int producer : e.getValue()) {
+                outputBids.add(bids.get(producer));
+                outputAsks.add(asks.get(producer));
+                IntConsumer reader = slot -> {
+                    readers.get(slot).add(outputIndex);
+                    for (int leg : book.legs(slot))
+                        readers.get(leg).add(outputIndex);
+                };
+                bids.get(producer).slots(reader);
+                asks.get(producer).slots(reader);
+            }
+            outputs[index++] = new Output(e.getKey(), outputBids, outputAsks);
+        }
+
+        affected = new int[book.size()][];
+        for (int s = 0; s < book.size(); s++) {
+            TreeSet<Integer> union = new TreeSet<>(readers.get(s));
+            int inv = book.inverse(s);
+            if (inv >= 0)
+                union.addAll(readers.get(inv));
+            affected[s] = union.isEmpty() ? NONE : union.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    int size() {
+        return outputs.length;
+    }
+
+    Output output(int index) {
+        return outputs[index];
+    }
+
+    /** Outputs to re-evaluate after a tick on the given slot, in formula order. */
+    int[] affected(int slot) {
+        return slot < affected.length ? affected[slot] : NONE;
+    }
+}
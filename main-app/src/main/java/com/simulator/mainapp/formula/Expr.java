@@ -0,0 +1,178 @@
+package com.simulator.mainapp.formula;
+
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Node of a compiled rate formula.
+ * <p>
+ * Parsed formulas are templates: symbol references still contain placeholders such as
+ * {@code {base}{quote}}. {@link #bind} substitutes the placeholders and resolves every symbol to a
+ * {@link QuoteBook} slot once, so {@link #eval} is plain arithmetic over the book's arrays.
+ * A missing quote evaluates to NaN, which propagates through every operator.
+ */
+public abstract class Expr {
+
+    abstract double eval(QuoteBook book);
+
+    abstract Expr bind(Map<String, String> placeholders, QuoteBook book);
+
+    // Reports every QuoteBook slot a bound expression reads
+    abstract void slots(IntConsumer consumer);
+
+    static final class Const extends Expr {
+        private final double value;
+
+        Const(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double eval(QuoteBook book) {
+            return value;
+        }
+
+        @Override
+        Expr bind(Map<String, String> placeholders, QuoteBook book) {
+            return this;
+        }
+
+        @Override
+        void slots(IntConsumer consumer) {
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    enum Side {
+        BID, ASK, MID, SPREAD
+    }
+
+    static final class Quote extends Expr {
+        private final String symbol;
+        private final Side side;
+        private final int slot;
+
+        Quote(String symbol, Side side) {
+            this(symbol, side, -1);
+        }
+
+        private Quote(String symbol, Side side, int slot) {
+            this.symbol = symbol;
+            this.side = side;
+            this.slot = slot;
+        }
+
+        @Override
+        double eval(QuoteBook book) {
+            switch (side) {
+                case BID:
+                    return book.bid(slot);
+                case ASK:
+                    return book.ask(slot);
+                case MID:
+                    return (book.bid(slot) + book.ask(slot)) / 2.0;
+                default:
+                    return book.ask(slot) - book.bid(slot);
+            }
+        }
+
+        @Override
+        Expr bind(Map<String, String> placeholders, QuoteBook book) {
+            String resolved = symbol;
+            for (Map.Entry<String, String> e : placeholders.entrySet()) {
+                resolved = resolved.replace("{" + e.getKey() + "}", e.getValue());
+            }
+            if (resolved.indexOf('{') >= 0)
+                throw new IllegalArgumentException("Unresolved placeholder in " + symbol);
+            return new Quote(resolved, side, book.slot(resolved));
+        }
+
+        @Override
+        void slots(IntConsumer consumer) {
+            if (slot < 0)
+                throw new IllegalStateException("Quote " + symbol + " is not bound");
+            consumer.accept(slot);
+        }
+
+        @Override
+        public String toString() {
+            return side.name().toLowerCase() + "(" + symbol + ")";
+        }
+    }
+
+    static final class Negate extends Expr {
+        private final Expr operand;
+
+        Negate(Expr operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(QuoteBook book) {
+            return -operand.eval(book);
+        }
+
+        @Override
+        Expr bind(Map<String, String> placeholders, QuoteBook book) {
+            return new Negate(operand.bind(placeholders, book));
+        }
+
+        @Override
+        void slots(IntConsumer consumer) {
+            operand.slots(consumer);
+        }
+
+        @Override
+        public String toString() {
+            return "-" + operand;
+        }
+    }
+
+    static final class Binary extends Expr {
+        private final char op;
+        private final Expr left;
+        private final Expr right;
+
+        Binary(char op, Expr left, Expr right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval(QuoteBook book) {
+            double l = left.eval(book);
+            double r = right.eval(book);
+            switch (op) {
+                case '+':
+                    return l + r;
+                case '-':
+                    return l - r;
+                case '*':
+                    return l * r;
+                default:
+                    return l / r;
+            }
+        }
+
+        @Override
+        Expr bind(Map<String, String> placeholders, QuoteBook book) {
+            return new Binary(op, left.bind(placeholders, book), right.bind(placeholders, book));
+        }
+
+        @Override
+        void slots(IntConsumer consumer) {
+            left.slots(consumer);
+            right.slots(consumer);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + op + " " + right + ")";
+        }
+    }
+}
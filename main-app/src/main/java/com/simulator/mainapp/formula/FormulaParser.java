@@ -0,0 +1,147 @@
+package com.simulator.mainapp.formula;
+
+/**
+ * Recursive descent parser for rate formulas.
+ *
+ * <pre>
+ * expr    := term (('+' | '-') term)*
+ * term    := unary (('*' | '/') unary)*
+ * unary   := '-' unary | primary
+ * primary := number | '(' expr ')' | SYMBOL_bid | SYMBOL_ask | mid(SYMBOL) | spread(SYMBOL)
+ * </pre>
+ *
+ * SYMBOL may contain placeholders, e.g. {@code {base}{anchor}_bid}.
+ */
+public final class FormulaParser {
+
+    private final String text;
+    private int pos;
+
+    private FormulaParser(String text) {
+        this.text = text;
+    }
+
+    public static Expr parse(String text) {
+        if (text == null)
+            throw new IllegalArgumentException("Formula is missing");
+        FormulaParser parser = new FormulaParser(text);
+        Expr expr = parser.expr();
+        parser.skipSpaces();
+        if (parser.pos != text.length())
+            throw parser.error("Unexpected '" + text.charAt(parser.pos) + "'");
+        return expr;
+    }
+
+    private Expr expr() {
+        Expr left = term();
+        while (true) {
+            char c = peek();
+            if (c != '+' && c != '-')
+                return left;
+            pos++;
+            left = new Expr.Binary(c, left, term());
+        }
+    }
+
+    private Expr term() {
+        Expr left = unary();
+        while (true) {
+            char c = peek();
+            if (c != '*' && c != '/')
+                return left;
+            pos++;
+            left = new Expr.Binary(c, left, unary());
+        }
+    }
+
+    private Expr unary() {
+        if (peek() == '-') {
+            pos++;
+            return new Expr.Negate(unary());
+        }
+        return primary();
+    }
+
+    private Expr primary() {
+        char c = peek();
+        if (c == '(') {
+            pos++;
+            Expr inner = expr();
+            expect(')');
+            return inner;
+        }
+        if ((c >= '0' && c <= '9') || c == '.')
+            return number();
+        if (isIdentifierChar(c))
+            return reference();
+        throw error(c == 0 ? "Unexpected end of formula" : "Unexpected '" + c + "'");
+    }
+
+    private Expr number() {
+        int start = pos;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.'))
+            pos++;
+        try {
+            return new Expr.Const(Double.parseDouble(text.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + text.substring(start, pos) + "'");
+        }
+    }
+
+    private Expr reference() {
+        String name = identifier();
+        if (peek() == '(') {
+            pos++;
+            String symbol = identifier();
+            expect(')');
+            switch (name) {
+                case "mid":
+                    return new Expr.Quote(symbol, Expr.Side.MID);
+                case "spread":
+                    return new Expr.Quote(symbol, Expr.Side.SPREAD);
+                default:
+                    throw error("Unknown function '" + name + "'");
+            }
+        }
+        if (name.endsWith("_bid"))
+            return new Expr.Quote(name.substring(0, name.length() - 4), Expr.Side.BID);
+        if (name.endsWith("_ask"))
+            return new Expr.Quote(name.substring(0, name.length() - 4), Expr.Side.ASK);
+        throw error("Reference '" + name + "' must end with _bid or _ask");
+    }
+
+    private String identifier() {
+        skipSpaces();
+        int start = pos;
+        while (pos < text.length() && isIdentifierChar(text.charAt(pos)))
+            pos++;
+        if (start == pos)
+            throw error("Symbol expected");
+        return text.substring(start, pos);
+    }
+
+    private void expect(char c) {
+        if (peek() != c)
+            throw error("'" + c + "' expected");
+        pos++;
+    }
+
+    // Returns the next non-space character without consuming it, 0 at the end
+    private char peek() {
+        skipSpaces();
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+            pos++;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '{' || c == '}';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in formula: " + text);
+    }
+}
@@ -0,0 +1,111 @@
+package com.simulator.mainapp.formula;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link FormulaSet}.
+ * <p>
+ * Lookup order: {@code RATE_FORMULAS_PATH} env var, {@code rate-formulas.json} in the working directory
+ * (the Docker image copies it there), then the classpath resource. A file source is checked every
+ * {@code RATE_FORMULAS_RELOAD_MS} (default 5000) and reloaded when it changes; a file that fails to parse
+ * is logged and the previous formulas stay active.
+ */
+public final class FormulaRegistry {
+
+    private static final Logger logger = LogManager.getLogger(FormulaRegistry.class);
+
+    private static final String FILE_NAME = "rate-formulas.json";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final File file;
+    private volatile FormulaSet current;
+    private long lastModified;
+    private long nextVersion = 1;
+
+    private static final class Holder {
+        private static final FormulaRegistry INSTANCE = new FormulaRegistry();
+    }
+
+    public static FormulaRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private FormulaRegistry() {
+        String path = System.getenv("RATE_FORMULAS_PATH");
+        File candidate = new File(path != null ? path : FILE_NAME);
+        this.file = candidate.isFile() ? candidate : null;
+
+        if (file != null) {
+            current = FormulaSet.empty(0);
+            reloadIfChanged();
+            long interval = reloadInterval();
+            if (interval > 0) {
+                ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "formula-reload");
+                    t.setDaemon(true);
+                    return t;
+                });
+                watcher.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            current = loadClasspath();
+        }
+    }
+
+    /** Formulas currently in effect; callers compare {@link FormulaSet#version()} to detect a reload. */
+    public FormulaSet current() {
+        return current;
+    }
+
+    private synchronized void reloadIfChanged() {
+        long modified = file.lastModified();
+        if (modified == lastModified)
+            return;
+        lastModified = modified;
+
+        try {
+            JsonNode root = mapper.readTree(file);
+            FormulaSet set = FormulaSet.parse(root, nextVersion++);
+            current = set;
+            logger.info("[FormulaRegistry] Loaded {} formula groups from {} (version={})",
+                    set.groups().size(), file.getAbsolutePath(), set.version());
+        } catch (Exception e) {
+            logger.error("[FormulaRegistry] Failed to load {}, keeping version={}",
+                    file.getAbsolutePath(), current.version(), e);
+        }
+    }
+
+    private FormulaSet loadClasspath() {
+        try (InputStream in = FormulaRegistry.class.getClassLoader().getResourceAsStream(FILE_NAME)) {
+            if (in == null) {
+                logger.error("[FormulaRegistry] {} not found in working directory or classpath", FILE_NAME);
+                return FormulaSet.empty(0);
+            }
+            FormulaSet set = FormulaSet.parse(mapper.readTree(in), nextVersion++);
+            logger.info("[FormulaRegistry] Loaded {} formula groups from classpath", set.groups().size());
+            return set;
+        } catch (Exception e) {
+            logger.error("[FormulaRegistry] Failed to load {} from classpath", FILE_NAME, e);
+            return FormulaSet.empty(0);
+        }
+    }
+
+    private static long reloadInterval() {
+        String env = System.getenv("RATE_FORMULAS_RELOAD_MS");
+        try {
+            return env != null ? Long.parseLong(env.trim()) : 5000;
+        } catch (NumberFormatException e) {
+            logger.warn("[FormulaRegistry] Invalid RATE_FORMULAS_RELOAD_MS={}, using 5000", env);
+            return 5000;
+        }
+    }
+}
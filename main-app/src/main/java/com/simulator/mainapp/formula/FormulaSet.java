@@ -0,0 +1,121 @@
+package com.simulator.mainapp.formula;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed content of rate-formulas.json. Immutable; a reload produces a new instance with a higher version.
+ * <p>
+ * Every object member is a formula group with {@code bid}, {@code ask} and an optional {@code output}
+ * template (default {@code {base}{quote}}). The optional {@code anchors} array lists the intermediate
+ * currencies tried by groups that use {@code {anchor}}; {@value #AUTO_ANCHOR} (the default) picks the best
+ * anchor for each pair from the subscriber's {@link CurrencyGraph}.
+ */
+public final class FormulaSet {
+
+    public static final String AUTO_ANCHOR = "*";
+
+    private static final Set<String> PLACEHOLDERS = Set.of("base", "quote", "anchor");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-z]+)}");
+
+    public static final class Group {
+        final String name;
+        final String output;
+        final Expr bid;
+        final Expr ask;
+        final boolean usesAnchor;
+
+        Group(String name, String output, Expr bid, Expr ask, boolean usesAnchor) {
+            this.name = name;
+            this.output = output;
+            this.bid = bid;
+            this.ask = ask;
+            this.usesAnchor = usesAnchor;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    private final long version;
+    private final List<Group> groups;
+    private final List<String> anchors;
+
+    private FormulaSet(long version, List<Group> groups, List<String> anchors) {
+        this.version = version;
+        this.groups = groups;
+        this.anchors = anchors;
+    }
+
+    static FormulaSet empty(long version) {
+        return new FormulaSet(version, List.of(), List.of(AUTO_ANCHOR));
+    }
+
+    /** @throws IllegalArgumentException when a formula does not parse or uses an unknown placeholder */
+    static FormulaSet parse(JsonNode root, long version) {
+        List<Group> groups = new ArrayList<>();
+        List<String> anchors = new ArrayList<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode node = field.getValue();
+
+            if (name.equals("anchors")) {
+                for (JsonNode anchor : node)
+                    anchors.add(anchor.asText().trim().toUpperCase());
+                continue;
+            }
+            if (!node.isObject())
+                throw new IllegalArgumentException("Formula group '" + name + "' must be an object");
+
+            String output = node.path("output").asText("{base}{quote}");
+            String bid = node.path("bid").asText(null);
+            String ask = node.path("ask").asText(null);
+            boolean usesAnchor = false;
+            for (String text : new String[]{output, bid, ask}) {
+                usesAnchor |= checkPlaceholders(name, text);
+            }
+            groups.add(new Group(name, output, FormulaParser.parse(bid), FormulaParser.parse(ask), usesAnchor));
+        }
+
+        if (anchors.isEmpty())
+            anchors.add(AUTO_ANCHOR);
+        return new FormulaSet(version, List.copyOf(groups), List.copyOf(anchors));
+    }
+
+    // Returns true when the text uses {anchor}
+    private static boolean checkPlaceholders(String group, String text) {
+        if (text == null)
+            throw new IllegalArgumentException("Formula group '" + group + "' needs bid and ask");
+        boolean anchor = false;
+        Matcher m = PLACEHOLDER.matcher(text);
+        while (m.find()) {
+            if (!PLACEHOLDERS.contains(m.group(1)))
+                throw new IllegalArgumentException("Unknown placeholder {" + m.group(1) + "} in group '" + group + "'");
+            anchor |= m.group(1).equals("anchor");
+        }
+        return anchor;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<Group> groups() {
+        return groups;
+    }
+
+    public List<String> anchors() {
+        return anchors;
+    }
+}
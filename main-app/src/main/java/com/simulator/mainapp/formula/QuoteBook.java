@@ -0,0 +1,219 @@
+package com.simulator.mainapp.formula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slot-indexed quote storage for one subscriber.
+ * <p>
+ * Every symbol (platform prefix stripped, e.g. {@code USDTRY}) owns a slot. The resolved value of a slot is
+ * the average of its valid platform quotes ({@code PF1_USDTRY}, {@code PF2_USDTRY}); when the symbol has no
+ * quote of its own it is derived from the inverse symbol ({@code 1 / TRYUSD}), and failing that from a
+ * {@link CurrencyGraph} route installed by {@link #applyRoutes}. Unavailable values are NaN.
+ * Not thread-safe.
+ */
+public final class QuoteBook {
+
+    private static final int[] NO_LEGS = new int[0];
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<String, Source> sources = new HashMap<>();
+
+    private String[] symbols = new String[16];
+    private double[] bid = new double[16];
+    private double[] ask = new double[16];
+    private int[] inverse = new int[16];
+    private CurrencyGraph.Route[] routes = new CurrencyGraph.Route[16];
+    private final List<List<Source>> direct = new ArrayList<>();
+    private int size;
+
+    // Quote of one platform for one symbol, e.g. PF1_USDTRY
+    private static final class Source {
+        final int slot;
+        double bid = Double.NaN;
+        double ask = Double.NaN;
+
+        Source(int slot) {
+            this.slot = slot;
+        }
+
+        boolean valid() {
+            return bid > 0 && ask > 0;
+        }
+    }
+
+    public boolean contains(String rateName) {
+        return sources.containsKey(rateName);
+    }
+
+    /** Registers a raw rate such as {@code PF1_USDTRY}; returns its symbol. */
+    public String addRate(String rateName) {
+        String symbol = stripPlatform(rateName);
+        int slot = slot(symbol);
+        Source source = new Source(slot);
+        sources.put(rateName, source);
+        direct.get(slot).add(source);
+        // A quoted symbol is no longer routed; applyRoutes recomputes the rest on the next bind
+        routes[slot] = null;
+        if (inverse[slot] >= 0)
+            routes[inverse[slot]] = null;
+        return symbol;
+    }
+
+    /**
+     * Stores a raw quote and returns the slot of its symbol; the rate must have been registered with
+     * {@link #addRate}. Only that slot and its {@link #inverse} change value.
+     */
+    public int update(String rateName, double bidValue, double askValue) {
+        Source source = sources.get(rateName);
+        source.bid = bidValue;
+        source.ask = askValue;
+        resolve(source.slot);
+        if (inverse[source.slot] >= 0)
+            resolve(inverse[source.slot]);
+        return source.slot;
+    }
+
+    /** Returns the slot of a symbol, creating it when the symbol is seen for the first time. */
+    public int slot(String symbol) {
+        Integer existing = slots.get(symbol);
+        if (existing != null)
+            return existing;
+
+        int slot = size++;
+        if (slot == symbols.length)
+            grow();
+        symbols[slot] = symbol;
+        inverse[slot] = -1;
+        direct.add(new ArrayList<>(2));
+        slots.put(symbol, slot);
+
+        if (symbol.length() == 6) {
+            Integer inv = slots.get(symbol.substring(3) + symbol.substring(0, 3));
+            if (inv != null && inv != slot) {
+                inverse[slot] = inv;
+                inverse[inv] = slot;
+            }
+        }
+        resolve(slot);
+        return slot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Slot of the reversed symbol (TRYUSD for USDTRY), -1 when it has none. */
+    public int inverse(int slot) {
+        return inverse[slot];
+    }
+
+    public String symbol(int slot) {
+        return symbols[slot];
+    }
+
+    public double bid(int slot) {
+        CurrencyGraph.Route route = routes[slot];
+        return route == null ? bid[slot] : routeBid(route);
+    }
+
+    public double ask(int slot) {
+        CurrencyGraph.Route route = routes[slot];
+        return route == null ? ask[slot] : routeAsk(route);
+    }
+
+    /** True when the symbol has raw quotes of its own. */
+    public boolean hasQuotes(int slot) {
+        return !direct.get(slot).isEmpty();
+    }
+
+    /** Quoted slots a routed slot is computed from; empty for other slots. */
+    int[] legs(int slot) {
+        CurrencyGraph.Route route = routes[slot];
+        return route == null ? NO_LEGS : route.slots;
+    }
+
+    /** Installs routes for every symbol that has no quote of its own or of its inverse. */
+    void applyRoutes(CurrencyGraph graph) {
+        for (int slot = 0; slot < size; slot++) {
+            String symbol = symbols[slot];
+            boolean quoted = hasQuotes(slot) || (inverse[slot] >= 0 && hasQuotes(inverse[slot]));
+            routes[slot] = quoted || symbol.length() != 6
+                    ? null
+                    : graph.route(symbol.substring(0, 3), symbol.substring(3, 6));
+        }
+    }
+
+    // Legs are quoted slots, so their bid/ask arrays hold their own averaged quotes
+    private double routeBid(CurrencyGraph.Route route) {
+        double value = 1.0;
+        for (int i = 0; i < route.slots.length; i++) {
+            int leg = route.slots[i];
+            value *= route.inverted[i] ? 1.0 / ask[leg] : bid[leg];
+        }
+        return value;
+    }
+
+    private double routeAsk(CurrencyGraph.Route route) {
+        double value = 1.0;
+        for (int i = 0; i < route.slots.length; i++) {
+            int leg = route.slots[i];
+            value *= route.inverted[i] ? 1.0 / bid[leg] : ask[leg];
+        }
+        return value;
+    }
+
+    private void resolve(int slot) {
+        if (resolveDirect(slot))
+            return;
+
+        int inv = inverse[slot];
+        if (inv >= 0 && resolveDirect(inv)) {
+            // resolveDirect wrote the inverse slot's own values, which are still current
+            bid[slot] = 1.0 / ask[inv];
+            ask[slot] = 1.0 / bid[inv];
+        } else {
+            bid[slot] = Double.NaN;
+            ask[slot] = Double.NaN;
+        }
+    }
+
+    // Averages the valid platform quotes of a slot into bid/ask; false when it has none
+    private boolean resolveDirect(int slot) {
+        List<Source> list = direct.get(slot);
+        double bidSum = 0;
+        double askSum = 0;
+        int count = 0;
+        for (int i = 0; i < list.size(); i++) {
+            Source s = list.get(i);
+            if (s.valid()) {
+                bidSum += s.bid;
+                askSum += s.ask;
+                count++;
+            }
+        }
+        if (count == 0)
+            return false;
+        bid[slot] = bidSum / count;
+        ask[slot] = askSum / count;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = symbols.length * 2;
+        symbols = Arrays.copyOf(symbols, capacity);
+        bid = Arrays.copyOf(bid, capacity);
+        ask = Arrays.copyOf(ask, capacity);
+        inverse = Arrays.copyOf(inverse, capacity);
+        routes = Arrays.copyOf(routes, capacity);
+    }
+
+    // PF1_USDTRY -> USDTRY
+    static String stripPlatform(String rateName) {
+        int underscore = rateName.indexOf('_');
+        return underscore >= 0 ? rateName.substring(underscore + 1) : rateName;
+    }
+}
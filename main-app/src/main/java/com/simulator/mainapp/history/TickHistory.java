@@ -0,0 +1,70 @@
+package com.simulator.mainapp.history;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent tick history of every rate (e.g. {@code PF1_USDTRY}), one {@link TickRing} per rate.
+ * <p>
+ * {@code Coordinator} appends every raw tick; readers take snapshots through {@link #latest} and
+ * {@link #since} (or {@link #ring} directly) without locking, so "last N ticks" and "last 60 seconds"
+ * questions are answered from memory. Rings are created on a rate's first tick with {@code history.capacity}
+ * slots.
+ */
+public class TickHistory {
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, TickRing> rings = new ConcurrentHashMap<>();
+
+    public TickHistory(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Tick history capacity must be a power of two: " + capacity);
+        this.capacity = capacity;
+    }
+
+    public static TickHistory fromProperties(Properties props) {
+        return new TickHistory(Integer.parseInt(props.getProperty("history.capacity", "4096").trim()));
+    }
+
+    public void record(String rateName, double bid, double ask, long timeMicros) {
+        TickRing ring = rings.get(rateName);
+        if (ring == null)
+            ring = rings.computeIfAbsent(rateName, name -> new TickRing(name, capacity));
+        ring.append(bid, ask, timeMicros);
+    }
+
+    /** The ring of a rate, or null when no tick has been seen for it. */
+    public TickRing ring(String rateName) {
+        return rings.get(rateName);
+    }
+
+    public Set<String> rateNames() {
+        return Collections.unmodifiableSet(rings.keySet());
+    }
+
+    /** Fills {@code out} with the last {@code n} ticks of the rate; returns the number copied. */
+    public int latest(String rateName, int n, TickWindow out) {
+        TickRing ring = rings.get(rateName);
+        if (ring == null) {
+            out.clear(rateName);
+            return 0;
+        }
+        return ring.latest(n, out);
+    }
+
+    /** Fills {@code out} with the rate's ticks stamped at or after {@code fromMicros}; returns the number copied. */
+    public int since(String rateName, long fromMicros, TickWindow out) {
+        TickRing ring = rings.get(rateName);
+        if (ring == null) {
+            out.clear(rateName);
+            return 0;
+        }
+        return ring.since(fromMicros, out);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,113 @@
+package com.simulator.mainapp.history;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-capacity history of one symbol's recent ticks in primitive arrays; appends allocate nothing.
+ * <p>
+ * Every slot is guarded by its own seqlock stamp: a writer claims sequence {@code s}, marks the slot
+ * {@code 2s + 1} (writing), fills bid/ask/time and publishes {@code 2s + 2}. Readers never block writers:
+ * they copy a slot and keep it only if the stamp was the published value before and after the copy.
+ * Writers from several threads are allowed; a writer that finds its slot already taken by a newer lap gives
+ * its tick up instead of overwriting it.
+ */
+public final class TickRing {
+
+    private static final VarHandle STAMP = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final String symbol;
+    private final int mask;
+    private final long[] stamps;
+    private final double[] bids;
+    private final double[] asks;
+    private final long[] times;
+    // Sonraki yazılacak sıra numarası (= şimdiye kadar alınan tick sayısı)
+    private final AtomicLong claimed = new AtomicLong();
+
+    public TickRing(String symbol, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Tick history capacity must be a power of two: " + capacity);
+        this.symbol = symbol;
+        this.mask = capacity - 1;
+        this.stamps = new long[capacity];
+        this.bids = new double[capacity];
+        this.asks = new double[capacity];
+        this.times = new long[capacity];
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Number of ticks appended so far (including the ones already overwritten). */
+    public long count() {
+        return claimed.get();
+    }
+
+    /** Appends a tick; {@code timeMicros} is the tick's epoch microsecond timestamp. */
+    public void append(double bid, double ask, long timeMicros) {
+        long s = claimed.getAndIncrement();
+        int i = (int) (s & mask);
+        long writing = 2 * s + 1;
+        long current;
+        do {
+            current = (long) STAMP.getAcquire(stamps, i);
+            if (current >= writing)
+                return; // Slot daha yeni bir turda yazılmış
+            if ((current & 1) != 0) {
+                Thread.onSpinWait(); // Önceki turun yazarı bitirmedi
+                continue;
+            }
+            if (STAMP.compareAndSet(stamps, i, current, writing))
+                break;
+        } while (true);
+        bids[i] = bid;
+        asks[i] = ask;
+        times[i] = timeMicros;
+        STAMP.setRelease(stamps, i, writing + 1);
+    }
+
+    /** Copies up to {@code n} most recent ticks into {@code out}, oldest first; returns the number copied. */
+    public int latest(int n, TickWindow out) {
+        return read(Math.min(n, out.capacity()), Long.MIN_VALUE, out);
+    }
+
+    /** Copies the ticks with a timestamp at or after {@code fromMicros} into {@code out}, oldest first. */
+    public int since(long fromMicros, TickWindow out) {
+        return read(out.capacity(), fromMicros, out);
+    }
+
+    // En yeniden geriye doğru okur, sonra out içinde sırayı çevirir
+    private int read(int limit, long fromMicros, TickWindow out) {
+        out.clear(symbol);
+        long head = claimed.get();
+        long oldest = Math.max(0, head - capacity());
+        for (long s = head - 1; s >= oldest && out.size < limit; s--) {
+            int i = (int) (s & mask);
+            long published = 2 * s + 2;
+            long before = (long) STAMP.getAcquire(stamps, i);
+            if (before < published) {
+                continue; // Henüz yazılıyor; daha eski tick'lerle devam
+            }
+            if (before > published)
+                break; // Üzerine yazılmış; daha eskileri de gitti
+            double bid = bids[i];
+            double ask = asks[i];
+            long time = times[i];
+            VarHandle.acquireFence();
+            if ((long) STAMP.getOpaque(stamps, i) != published)
+                break;
+            if (time < fromMicros)
+                break;
+            out.add(s, bid, ask, time);
+        }
+        out.reverse();
+        return out.size;
+    }
+}
@@ -0,0 +1,86 @@
+package com.simulator.mainapp.history;
+
+/**
+ * Reusable snapshot of a run of ticks from a {@link TickRing}, oldest first. A reader keeps one window and
+ * refills it, so snapshotting allocates nothing. Not thread-safe.
+ */
+public final class TickWindow {
+
+    private String symbol;
+    private final long[] sequences;
+    private final double[] bids;
+    private final double[] asks;
+    private final long[] times;
+    int size;
+
+    public TickWindow(int capacity) {
+        this.sequences = new long[capacity];
+        this.bids = new double[capacity];
+        this.asks = new double[capacity];
+        this.times = new long[capacity];
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public int capacity() {
+        return times.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Position of the tick in its ring's history (0 = first tick ever appended). */
+    public long sequence(int i) {
+        return sequences[i];
+    }
+
+    public double bid(int i) {
+        return bids[i];
+    }
+
+    public double ask(int i) {
+        return asks[i];
+    }
+
+    /** Epoch microseconds. */
+    public long time(int i) {
+        return times[i];
+    }
+
+    public double mid(int i) {
+        return (bids[i] + asks[i]) / 2.0;
+    }
+
+    void clear(String symbol) {
+        this.symbol = symbol;
+        this.size = 0;
+    }
+
+    void add(long sequence, double bid, double ask, long time) {
+        sequences[size] = sequence;
+        bids[size] = bid;
+        asks[size] = ask;
+        times[size] = time;
+        size++;
+    }
+
+    void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long s = sequences[i]; sequences[i] = sequences[j]; sequences[j] = s;
+            double b = bids[i]; bids[i] = bids[j]; bids[j] = b;
+            double a = asks[i]; asks[i] = asks[j]; asks[j] = a;
+            long t = times[i]; times[i] = times[j]; times[j] = t;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(symbol).append('[').append(size).append(']');
+        for (int i = 0; i < size; i++)
+            sb.append(i == 0 ? " " : ", ").append(bids[i]).append('|').append(asks[i]).append('|').append(times[i]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.simulator.mainapp.journal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Id ↔ name table for the rate names and subscriber ids referenced by journal records.
+ * <p>
+ * Stored next to the segments as {@code symbols.dict}, one {@code <id>\t<name>} line per entry. Ids start at 1;
+ * 0 marks an unwritten record. A new name costs one file write, which happens once per rate/subscriber.
+ */
+final class JournalDictionary {
+
+    static final String FILE_NAME = "symbols.dict";
+
+    private final Path file;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    private JournalDictionary(Path file) {
+        this.file = file;
+    }
+
+    static JournalDictionary load(Path dir) throws IOException {
+        JournalDictionary dictionary = new JournalDictionary(dir.resolve(FILE_NAME));
+        dictionary.reload();
+        return dictionary;
+    }
+
+    /** Returns the id of a name, adding it to the file when it is new. */
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null)
+            return id;
+        int next = names.size() + 1;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(next + "\t" + name + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not add " + name + " to " + file, e);
+        }
+        names.add(name);
+        ids.put(name, next);
+        return next;
+    }
+
+    /** Name of an id, or null when it is not in the dictionary (yet). */
+    String name(int id) {
+        return id >= 1 && id <= names.size() ? names.get(id - 1) : null;
+    }
+
+    // Yazar başka bir süreçte yeni isim eklediyse okuyucu tekrar yükler
+    void reload() throws IOException {
+        if (!Files.exists(file))
+            return;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int tab = line.indexOf('\t');
+            if (tab <= 0)
+                continue; // yarım yazılmış son satır
+            int id = Integer.parseInt(line.substring(0, tab));
+            if (id != names.size() + 1)
+                continue;
+            String name = line.substring(tab + 1);
+            names.add(name);
+            ids.put(name, id);
+        }
+    }
+}
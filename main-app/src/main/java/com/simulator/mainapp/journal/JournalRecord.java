@@ -0,0 +1,54 @@
+package com.simulator.mainapp.journal;
+
+/**
+ * One journal record as read by {@link TickJournalReader}. The reader refills the same instance on every
+ * {@link TickJournalReader#next} call.
+ */
+public final class JournalRecord {
+
+    long index;
+    String rateName;
+    String source;
+    double bid;
+    double ask;
+    long eventMicros;
+    long receiveMicros;
+
+    /** Number of records this reader returned before this one. */
+    public long getIndex() {
+        return index;
+    }
+
+    public String getRateName() {
+        return rateName;
+    }
+
+    /** Subscriber the tick came from. */
+    public String getSource() {
+        return source;
+    }
+
+    public double getBid() {
+        return bid;
+    }
+
+    public double getAsk() {
+        return ask;
+    }
+
+    /** Tick timestamp, epoch microseconds. */
+    public long getEventMicros() {
+        return eventMicros;
+    }
+
+    /** When main-app received the tick, epoch microseconds. */
+    public long getReceiveMicros() {
+        return receiveMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord [index=" + index + ", rate=" + rateName + ", source=" + source + ", bid=" + bid
+                + ", ask=" + ask + ", event=" + eventMicros + ", receive=" + receiveMicros + "]";
+    }
+}
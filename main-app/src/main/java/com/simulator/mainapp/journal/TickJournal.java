@@ -0,0 +1,227 @@
+package com.simulator.mainapp.journal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of every raw tick, written to rolling memory-mapped segment files.
+ * <p>
+ * A record is 40 bytes, little-endian:
+ * <pre>
+ *  0 int    rate name id   (symbols.dict; 0 = not written)
+ *  4 int    source id      (subscriber, same dictionary)
+ *  8 double bid
+ * 16 double ask
+ * 24 long   event time     (tick timestamp, epoch micros)
+ * 32 long   receive time   (epoch micros)
+ * </pre>
+ * Segments ({@code ticks-000000.journal}, ...) are created at {@code journal.segment.size.mb} and mapped once;
+ * an append is a few stores into the mapping, with no system call and no allocation. The rate id is stored
+ * last with release semantics, so a record cut short by a crash reads as the end of the journal and is
+ * overwritten on restart, where appending resumes after the last complete record. Only the newest
+ * {@code journal.max.segments} segments are kept; older ones are deleted when a segment is rolled.
+ * The page cache writes the data back; a segment is forced to disk when it is rolled and on {@link #close}.
+ * <p>
+ * Appends are serialised on the journal; {@link TickJournalReader} reads the files sequentially.
+ */
+public class TickJournal implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(TickJournal.class);
+
+    public static final int RECORD_SIZE = 40;
+    static final int SOURCE_OFFSET = 4;
+    static final int BID_OFFSET = 8;
+    static final int ASK_OFFSET = 16;
+    static final int EVENT_OFFSET = 24;
+    static final int RECEIVE_OFFSET = 32;
+
+    static final String SEGMENT_PREFIX = "ticks-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    // Kayıt başındaki rate id'si; okuyucu bunu acquire ile okur
+    static final VarHandle RATE_ID = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ERROR_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final JournalDictionary dictionary;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position;
+    private long appended;
+    private long dropped;
+    private long lastErrorLog;
+    private boolean closed;
+
+    public TickJournal(Path dir, long segmentBytes, int maxSegments) throws IOException {
+        this.dir = dir;
+        long records = Math.max(1, Math.min(Integer.MAX_VALUE, segmentBytes) / RECORD_SIZE);
+        this.segmentSize = (int) (records * RECORD_SIZE);
+        this.maxSegments = maxSegments;
+        Files.createDirectories(dir);
+        this.dictionary = JournalDictionary.load(dir);
+
+        List<Integer> existing = segmentIndexes(dir);
+        if (existing.isEmpty()) {
+            openSegment(0);
+        } else {
+            resume(existing.get(existing.size() - 1));
+        }
+        logger.info("[TickJournal] Writing to {} segment={} position={} segmentBytes={} maxSegments={}",
+                dir.toAbsolutePath(), segmentIndex, position, segmentSize, maxSegments);
+    }
+
+    public static TickJournal fromProperties(Properties props) throws IOException {
+        Path dir = Paths.get(props.getProperty("journal.dir", "journal").trim());
+        long segmentMb = Long.parseLong(props.getProperty("journal.segment.size.mb", "64").trim());
+        int maxSegments = Integer.parseInt(props.getProperty("journal.max.segments", "16").trim());
+        return new TickJournal(dir, segmentMb * 1024 * 1024, maxSegments);
+    }
+
+    /** Appends one tick; never throws, a tick that cannot be written is counted in {@link #droppedCount}. */
+    public synchronized void append(String rateName, String source, double bid, double ask,
+                                    long eventMicros, long receiveMicros) {
+        if (closed)
+            return;
+        try {
+            if (position + RECORD_SIZE > segmentSize || segment == null)
+                roll();
+            int rateId = dictionary.idOf(rateName);
+            int sourceId = dictionary.idOf(source);
+            MappedByteBuffer buf = segment;
+            int p = position;
+            buf.putInt(p + SOURCE_OFFSET, sourceId);
+            buf.putDouble(p + BID_OFFSET, bid);
+            buf.putDouble(p + ASK_OFFSET, ask);
+            buf.putLong(p + EVENT_OFFSET, eventMicros);
+            buf.putLong(p + RECEIVE_OFFSET, receiveMicros);
+            RATE_ID.setRelease(buf, p, rateId);
+            position = p + RECORD_SIZE;
+            appended++;
+        } catch (Exception e) {
+            dropped++;
+            long now = System.nanoTime();
+            if (lastErrorLog == 0 || now - lastErrorLog >= ERROR_LOG_INTERVAL_NANOS) {
+                lastErrorLog = now;
+                logger.error("[TickJournal] Append failed (dropped={})", dropped, e);
+            }
+        }
+    }
+
+    public synchronized long appendedCount() {
+        return appended;
+    }
+
+    public synchronized long droppedCount() {
+        return dropped;
+    }
+
+    public Path directory() {
+        return dir;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        if (segment != null)
+            segment.force();
+        logger.info("[TickJournal] Closed segment={} appended={} dropped={}", segmentIndex, appended, dropped);
+    }
+
+    // Yeni segment: önceki diske zorlanır, eski segmentler silinir
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null; // eşleme GC ile kalkar
+        }
+        openSegment(segmentIndex + 1);
+        deleteOldSegments();
+    }
+
+    private void openSegment(int index) throws IOException {
+        segment = map(segmentPath(dir, index), segmentSize);
+        segmentIndex = index;
+        position = 0;
+    }
+
+    // Yeniden başlatmada son segmentteki ilk boş kayıttan devam edilir
+    private void resume(int index) throws IOException {
+        Path path = segmentPath(dir, index);
+        long size = Files.size(path);
+        segment = map(path, (int) Math.max(size - size % RECORD_SIZE, RECORD_SIZE));
+        segmentIndex = index;
+        int limit = segment.capacity() - RECORD_SIZE;
+        int p = 0;
+        while (p <= limit && (int) RATE_ID.getAcquire(segment, p) != 0)
+            p += RECORD_SIZE;
+        position = p;
+        if (segment.capacity() != segmentSize)
+            segment = null; // segment boyutu değişti: ilk append yeni segment açar
+    }
+
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0)
+            return;
+        List<Integer> indexes = segmentIndexes(dir);
+        for (int i = 0; i < indexes.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(dir, indexes.get(i)));
+            logger.info("[TickJournal] Deleted old segment {}", indexes.get(i));
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < size)
+                file.setLength(size);
+            MappedByteBuffer buf = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            return buf;
+        }
+    }
+
+    static Path segmentPath(Path dir, int index) {
+        return dir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /** Indexes of the segment files in {@code dir}, ascending. */
+    static List<Integer> segmentIndexes(Path dir) throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        if (!Files.isDirectory(dir))
+            return indexes;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX))
+                    .forEach(n -> {
+                        try {
+                            indexes.add(Integer.parseInt(n.substring(SEGMENT_PREFIX.length(),
+                                    n.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException ignored) {
+                            // başka bir dosya
+                        }
+                    });
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+}
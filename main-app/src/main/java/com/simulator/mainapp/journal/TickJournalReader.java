@@ -0,0 +1,118 @@
+package com.simulator.mainapp.journal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Sequential reader over the segments of a {@link TickJournal}, oldest first.
+ * <p>
+ * Each segment is mapped read-only once and records are decoded in place into a reused {@link JournalRecord}.
+ * {@link #next} returns false at the current end of the journal; calling it again later continues with records
+ * appended since, so the reader can also follow a live journal.
+ */
+public class TickJournalReader implements AutoCloseable {
+
+    private final Path dir;
+    private JournalDictionary dictionary;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int position;
+    private long index;
+
+    public TickJournalReader(Path dir) throws IOException {
+        this.dir = dir;
+        this.dictionary = JournalDictionary.load(dir);
+        List<Integer> indexes = TickJournal.segmentIndexes(dir);
+        if (!indexes.isEmpty())
+            open(indexes.get(0));
+    }
+
+    /** Fills {@code out} with the next record; returns false when no further record has been written yet. */
+    public boolean next(JournalRecord out) throws IOException {
+        while (true) {
+            if (segment == null && !openNext())
+                return false;
+            if (position + TickJournal.RECORD_SIZE <= segment.capacity()) {
+                int rateId = (int) TickJournal.RATE_ID.getAcquire(segment, position);
+                if (rateId != 0) {
+                    decode(rateId, out);
+                    return true;
+                }
+            }
+            // Segment sonu (ya da yazılmamış kayıt): sonraki segment varsa ona geç
+            if (!openNext())
+                return false;
+        }
+    }
+
+    /** Index of the segment being read, or -1 when the journal is empty. */
+    public int segmentIndex() {
+        return segmentIndex;
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+
+    private void decode(int rateId, JournalRecord out) throws IOException {
+        int p = position;
+        int sourceId = segment.getInt(p + TickJournal.SOURCE_OFFSET);
+        String rateName = dictionary.name(rateId);
+        String source = dictionary.name(sourceId);
+        if (rateName == null || source == null) {
+            // Yazar yeni bir isim ekledi
+            dictionary = JournalDictionary.load(dir);
+            rateName = dictionary.name(rateId);
+            source = dictionary.name(sourceId);
+        }
+        out.index = index++;
+        out.rateName = rateName;
+        out.source = source;
+        out.bid = segment.getDouble(p + TickJournal.BID_OFFSET);
+        out.ask = segment.getDouble(p + TickJournal.ASK_OFFSET);
+        out.eventMicros = segment.getLong(p + TickJournal.EVENT_OFFSET);
+        out.receiveMicros = segment.getLong(p + TickJournal.RECEIVE_OFFSET);
+        position = p + TickJournal.RECORD_SIZE;
+    }
+
+    private boolean openNext() throws IOException {
+        if (segment == null && segmentIndex < 0) {
+            List<Integer> indexes = TickJournal.segmentIndexes(dir);
+            if (indexes.isEmpty())
+                return false;
+            open(indexes.get(0));
+            return true;
+        }
+        if (Files.exists(TickJournal.segmentPath(dir, segmentIndex + 1))) {
+            open(segmentIndex + 1);
+            return true;
+        }
+        // Okuyucu gerideyken ara segmentler silinmiş olabilir
+        for (int candidate : TickJournal.segmentIndexes(dir)) {
+            if (candidate > segmentIndex) {
+                open(candidate);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void open(int index) throws IOException {
+        Path path = TickJournal.segmentPath(dir, index);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            long size = file.length();
+            segment = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size - size % TickJournal.RECORD_SIZE);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        segmentIndex = index;
+        position = 0;
+    }
+}
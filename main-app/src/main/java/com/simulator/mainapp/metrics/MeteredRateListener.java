@@ -0,0 +1,86 @@
+package com.simulator.mainapp.metrics;
+
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sits between the collectors and the pipeline (or Coordinator) and counts what the collectors deliver:
+ * ticks per subscriber and platform, and connection state per platform from
+ * {@link #onConnect}/{@link #onDisconnect}. {@code collector_connections} relies on collectors reporting
+ * {@code onDisconnect} only for connections they opened, including ones the server dropped.
+ * Everything is forwarded unchanged on the collector's thread.
+ * A tick costs two map lookups and a {@link java.util.concurrent.atomic.LongAdder} increment.
+ */
+public class MeteredRateListener implements RateListener {
+
+    private final RateListener downstream;
+    private final MetricsRegistry registry;
+    // subscriberId -> platform -> counter
+    private final Map<String, Map<String, MetricsRegistry.Counter>> ticks = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> connections = new ConcurrentHashMap<>();
+
+    public MeteredRateListener(RateListener downstream, MetricsRegistry registry) {
+        this.downstream = downstream;
+        this.registry = registry;
+    }
+
+    @Override
+    public void onConnect(String platform, boolean status) {
+        registry.counter("collector_connects_total", "Connection attempts per platform",
+                "platform", platform, "result", status ? "success" : "failure").increment();
+        if (status)
+            connections(platform).incrementAndGet();
+        downstream.onConnect(platform, status);
+    }
+
+    @Override
+    public void onDisconnect(String platform, boolean status) {
+        // status=false: the connection dropped (remote close or I/O error) and the collector is reconnecting
+        registry.counter("collector_disconnects_total", "Collector disconnects per platform",
+                "platform", platform, "reason", status ? "closed" : "dropped").increment();
+        connections(platform).getAndUpdate(n -> Math.max(0, n - 1));
+        downstream.onDisconnect(platform, status);
+    }
+
+    @Override
+    public void onRateAvailable(String subscriberId, String platform, String rateName, RateFields fields) {
+        counter(subscriberId, platform).increment();
+        downstream.onRateAvailable(subscriberId, platform, rateName, fields);
+    }
+
+    @Override
+    public void onRateUpdate(String subscriberId, String platform, String rateName, RateFields fields) {
+        counter(subscriberId, platform).increment();
+        downstream.onRateUpdate(subscriberId, platform, rateName, fields);
+    }
+
+    @Override
+    public void onRateStatus(String platform, String rateName, String status) {
+        downstream.onRateStatus(platform, rateName, status);
+    }
+
+    private MetricsRegistry.Counter counter(String subscriberId, String platform) {
+        Map<String, MetricsRegistry.Counter> platforms = ticks.get(subscriberId);
+        if (platforms == null)
+            platforms = ticks.computeIfAbsent(subscriberId, k -> new ConcurrentHashMap<>());
+        MetricsRegistry.Counter counter = platforms.get(platform);
+        if (counter == null)
+            counter = platforms.computeIfAbsent(platform, k -> registry.counter("ticks_received_total",
+                    "Ticks delivered by the collectors", "subscriber", subscriberId, "platform", platform));
+        return counter;
+    }
+
+    // Açık bağlantı sayısı; bir platforma birden fazla abone bağlanır
+    private AtomicLong connections(String platform) {
+        return connections.computeIfAbsent(platform, k -> {
+            AtomicLong open = new AtomicLong();
+            registry.gauge("collector_connections", "Open collector connections per platform", open::get,
+                    "platform", platform);
+            return open;
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package com.simulator.mainapp.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Counters, timers and gauges for main-app, rendered in the Prometheus text format by {@link #scrape()}.
+ * <p>
+ * Registration looks the meter up by name and labels and is meant to run once, when a component is wired;
+ * callers keep the returned {@link Counter} or {@link Timer} and record on it directly. Recording is lock-free
+ * ({@link LongAdder} and {@link LongAccumulator}), so collector and shard threads never contend on a meter.
+ * Gauges are read at scrape time. Timers expose count, sum and a recent max, in seconds. The max covers the
+ * current and the previous {@link #MAX_WINDOW_NANOS} window; windows roll on time, not on scrapes, so any
+ * number of scrapers read the same value. Text from other writers ({@link #include}) is appended, so a
+ * process has one scrape target.
+ */
+public final class MetricsRegistry {
+
+    static final long MAX_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final List<Supplier<String>> included = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param labels alternating label names and values, e.g. {@code "platform", "pf1"}
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).meters
+                .computeIfAbsent(labels(labels), k -> new Counter());
+    }
+
+    public Timer timer(String name, String help, String... labels) {
+        return (Timer) family(name, help, Type.TIMER).meters
+                .computeIfAbsent(labels(labels), k -> new Timer());
+    }
+
+    /** Registers a gauge read at scrape time; registering the same name and labels again replaces it. */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).meters.put(labels(labels), new Gauge(value));
+    }
+
+    /**
+     * Appends text that is already in Prometheus text exposition format, e.g. {@code LatencyEndpoint.render},
+     * to every {@link #scrape()}. Its metric names must not clash with the registry's.
+     */
+    public void include(Supplier<String> exposition) {
+        included.add(exposition);
+    }
+
+    /** All meters in Prometheus text exposition format, sorted by name and labels, then the included text. */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        long now = System.nanoTime();
+        for (Family family : new TreeMap<>(families).values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ')
+                    .append(family.type == Type.TIMER ? "summary" : family.type.name().toLowerCase()).append('\n');
+            for (Map.Entry<String, Object> e : new TreeMap<>(family.meters).entrySet()) {
+                String labels = e.getKey();
+                Object meter = e.getValue();
+                if (meter instanceof Counter counter) {
+                    sample(out, family.name, labels, counter.count());
+                } else if (meter instanceof Gauge gauge) {
+                    sample(out, family.name, labels, gauge.value.getAsDouble());
+                } else {
+                    Timer timer = (Timer) meter;
+                    sample(out, family.name + "_count", labels, timer.count());
+                    sample(out, family.name + "_sum", labels, timer.totalNanos() / 1e9);
+                }
+            }
+            // Max is a separate gauge family, as Micrometer's Prometheus registry exposes it
+            if (family.type == Type.TIMER) {
+                String max = family.name + "_max";
+                out.append("# HELP ").append(max).append(" Largest ").append(family.name)
+                        .append(" in the last one to two minutes\n");
+                out.append("# TYPE ").append(max).append(" gauge\n");
+                for (Map.Entry<String, Object> e : new TreeMap<>(family.meters).entrySet()) {
+                    sample(out, max, e.getKey(), ((Timer) e.getValue()).maxNanos(now) / 1e9);
+                }
+            }
+        }
+        for (Supplier<String> exposition : included)
+            out.append(exposition.get());
+        return out.toString();
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(name, help, type));
+        if (family.type != type)
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        return family;
+    }
+
+    // Etiketler isim sırasına göre dizilir ki aynı meter farklı sırayla kaydedildiğinde de tek kalsın
+    private static String labels(String[] labels) {
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < labels.length; i += 2)
+            sorted.put(labels[i], labels[i + 1]);
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : sorted.entrySet()) {
+            if (sb.length() > 0)
+                sb.append(',');
+            sb.append(e.getKey()).append("=\"").append(escape(e.getValue())).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty())
+            out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value))
+            out.append((long) value);
+        else
+            out.append(value);
+        out.append('\n');
+    }
+
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+    }
+
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        // Sadece scrape tarafında, timer kilidiyle okunur/yazılır
+        private long previousMax;
+        private long windowStart = System.nanoTime();
+
+        public void record(long nanos) {
+            if (nanos < 0)
+                nanos = 0;
+            count.increment();
+            totalNanos.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        public void record(long amount, TimeUnit unit) {
+            record(unit.toNanos(amount));
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        // Pencere süresi dolduysa kaydır; okuma sıfırlamaz, aynı penceredeki her scrape aynı değeri görür
+        synchronized long maxNanos(long now) {
+            if (now - windowStart >= MAX_WINDOW_NANOS) {
+                previousMax = max.getThenReset();
+                windowStart = now;
+            }
+            return Math.max(previousMax, max.get());
+        }
+    }
+
+    private record Gauge(DoubleSupplier value) {
+    }
+
+    private enum Type {
+        COUNTER, TIMER, GAUGE
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final Map<String, Object> meters = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
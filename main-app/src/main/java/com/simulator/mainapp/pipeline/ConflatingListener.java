@@ -0,0 +1,20 @@
+package com.simulator.mainapp.pipeline;
+
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+
+/**
+ * Downstream that splits a tick into a part every tick must reach and a part only the latest value needs.
+ * <p>
+ * {@link RatePipeline} calls {@link #onRawTick} for every event, in arrival order, and
+ * {@link #onLatestTick} once per subscriber and rate for each drained batch, with the newest fields.
+ * Older unprocessed ticks of the same rate are skipped on the latest-value path.
+ */
+public interface ConflatingListener extends RateListener {
+
+    /** Every tick; raw history consumers must not lose any. */
+    void onRawTick(String subscriberId, String platform, String rateName, RateFields fields);
+
+    /** Latest tick of a subscriber's rate; intermediate values may have been conflated away. */
+    void onLatestTick(String subscriberId, String platform, String rateName, RateFields fields);
+}
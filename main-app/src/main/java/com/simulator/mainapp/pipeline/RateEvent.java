@@ -0,0 +1,27 @@
+package com.simulator.mainapp.pipeline;
+
+import com.simulator.common.RateFields;
+
+// Preallocated ring buffer slot. Producers fill it between claim and publish,
+// the shard worker reads it and clears the references before releasing the slot.
+final class RateEvent {
+
+    String subscriberId;
+    String platform;
+    String rateName;
+    RateFields fields;
+
+    void set(String subscriberId, String platform, String rateName, RateFields fields) {
+        this.subscriberId = subscriberId;
+        this.platform = platform;
+        this.rateName = rateName;
+        this.fields = fields;
+    }
+
+    void clear() {
+        subscriberId = null;
+        platform = null;
+        rateName = null;
+        fields = null;
+    }
+}
@@ -0,0 +1,296 @@
+package com.simulator.mainapp.pipeline;
+
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+import com.simulator.common.latency.TickStamps;
+import com.simulator.mainapp.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decouples collectors from the Coordinator.
+ * <p>
+ * {@link #onRateUpdate} only copies the tick into a preallocated ring buffer slot and returns, so collector
+ * threads never wait on Redis or Kafka. Ticks are sharded by subscriber: every shard has its own ring and
+ * a single worker thread that hands events to the downstream listener in arrival order. A subscriber's
+ * derived rate state is therefore only ever touched by one thread, and per-symbol order is preserved.
+ * Connection callbacks are forwarded directly.
+ * <p>
+ * When the downstream is a {@link ConflatingListener} and conflation is on, a worker drains everything
+ * waiting in its ring at once, passes each event to {@link ConflatingListener#onRawTick}, keeps only the
+ * newest tick per subscriber and rate, releases the ring and then runs {@link ConflatingListener#onLatestTick}
+ * once per key. A burst therefore grows the conflated count instead of the Redis and calculation backlog.
+ */
+public class RatePipeline implements RateListener {
+
+    private static final Logger logger = LogManager.getLogger(RatePipeline.class);
+
+    private static final int MAX_BATCH = 256;
+
+    private final RateListener downstream;
+    // Non-null when conflation is on
+    private final ConflatingListener conflating;
+    private final Shard[] shards;
+    private final ScheduledExecutorService metrics;
+    private volatile boolean running = true;
+
+    public RatePipeline(RateListener downstream, int shardCount, int bufferSize, String waitStrategy,
+                        boolean conflate, long metricsIntervalMs) {
+        this.downstream = downstream;
+        this.conflating = conflate && downstream instanceof ConflatingListener
+                ? (ConflatingListener) downstream : null;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, new RingBuffer(bufferSize, WaitStrategy.fromName(waitStrategy)));
+        }
+
+        if (metricsIntervalMs > 0) {
+            metrics = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "pipeline-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            metrics.scheduleAtFixedRate(this::logMetrics, metricsIntervalMs, metricsIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            metrics = null;
+        }
+
+        logger.info("[RatePipeline] Started shards={} bufferSize={} waitStrategy={} conflation={}",
+                shardCount, bufferSize, waitStrategy, conflating != null);
+    }
+
+    /**
+     * Builds a pipeline from {@code pipeline.*} properties: shards (default: available processors),
+     * buffer.size (power of two, default 4096), wait.strategy (blocking | sleeping | yielding | busy-spin,
+     * default blocking), conflation.enabled (default true) and metrics.interval.ms (default 30000,
+     * 0 disables the log).
+     */
+    public static RatePipeline fromProperties(RateListener downstream, Properties props) {
+        int shards = Integer.parseInt(props.getProperty("pipeline.shards",
+                String.valueOf(Runtime.getRuntime().availableProcessors())).trim());
+        int bufferSize = Integer.parseInt(props.getProperty("pipeline.buffer.size", "4096").trim());
+        String waitStrategy = props.getProperty("pipeline.wait.strategy", "blocking");
+        boolean conflate = Boolean.parseBoolean(props.getProperty("pipeline.conflation.enabled", "true").trim());
+        long metricsInterval = Long.parseLong(props.getProperty("pipeline.metrics.interval.ms", "30000").trim());
+        return new RatePipeline(downstream, Math.max(1, shards), bufferSize, waitStrategy, conflate,
+                metricsInterval);
+    }
+
+    /** Registers {@code pipeline_queue_depth} and {@code pipeline_conflated}, read at scrape time. */
+    public void setMetrics(MetricsRegistry metrics) {
+        metrics.gauge("pipeline_queue_depth", "Events waiting in all shards", this::queueDepth);
+        metrics.gauge("pipeline_conflated", "Ticks replaced by a newer tick before the latest-value path",
+                this::conflatedCount);
+    }
+
+    @Override
+    public void onConnect(String platform, boolean status) {
+        downstream.onConnect(platform, status);
+    }
+
+    @Override
+    public void onDisconnect(String platform, boolean status) {
+        downstream.onDisconnect(platform, status);
+    }
+
+    @Override
+    public void onRateAvailable(String subscriberId, String platform, String rateName, RateFields fields) {
+        onRateUpdate(subscriberId, platform, rateName, fields);
+    }
+
+    @Override
+    public void onRateUpdate(String subscriberId, String platform, String rateName, RateFields fields) {
+        if (!running)
+            return;
+        // Collector thread: receive time for latency tracking, before any queueing
+        if (fields.getReceiveMicros() == 0)
+            fields.setReceiveMicros(TickStamps.nowMicros());
+        RingBuffer ring = shards[Math.floorMod(subscriberId.hashCode(), shards.length)].ring;
+        long sequence = ring.next();
+        ring.get(sequence).set(subscriberId, platform, rateName, fields);
+        ring.publish(sequence);
+    }
+
+    @Override
+    public void onRateStatus(String platform, String rateName, String status) {
+        downstream.onRateStatus(platform, rateName, status);
+    }
+
+    /**
+     * Stops accepting ticks and waits up to a second per shard for the worker to finish the batch in hand,
+     * so nothing reaches the downstream after this returns; a worker that does not stop in time is interrupted.
+     * Ticks still waiting in the rings are dropped.
+     */
+    public void close() {
+        running = false;
+        for (Shard shard : shards) {
+            shard.ring.waitStrategy().signalAll();
+            try {
+                shard.thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (shard.thread.isAlive())
+                shard.thread.interrupt();
+        }
+        if (metrics != null)
+            metrics.shutdownNow();
+    }
+
+    /** Events waiting in all shards. */
+    public long queueDepth() {
+        long depth = 0;
+        for (Shard shard : shards)
+            depth += shard.ring.depth();
+        return depth;
+    }
+
+    /** Ticks replaced by a newer tick of the same subscriber and rate before reaching the latest-value path. */
+    public long conflatedCount() {
+        long conflated = 0;
+        for (Shard shard : shards)
+            conflated += shard.conflated;
+        return conflated;
+    }
+
+    private void logMetrics() {
+        for (Shard shard : shards) {
+            long maxDepth = shard.maxDepth;
+            shard.maxDepth = 0;
+            logger.info("[RatePipeline] shard={} depth={} maxDepth={} capacity={} processed={} conflated={} producerWaits={}",
+                    shard.index, shard.ring.depth(), maxDepth, shard.ring.capacity(),
+                    shard.ring.consumed() + 1, shard.conflated, shard.ring.producerWaits());
+        }
+    }
+
+    private final class Shard implements Runnable {
+        final int index;
+        final RingBuffer ring;
+        final Thread thread;
+        // Largest backlog seen by the worker since the last metrics log
+        volatile long maxDepth;
+        // Only written by the worker thread
+        volatile long conflated;
+
+        private final BooleanSupplier ready;
+        private long nextSequence;
+
+        // Latest tick per subscriber and rate; entries are reused across batches
+        private final Map<String, Map<String, LatestTick>> latest = new HashMap<>();
+        private final List<LatestTick> pending = new ArrayList<>();
+
+        Shard(int index, RingBuffer ring) {
+            this.index = index;
+            this.ring = ring;
+            this.ready = () -> !running || ring.isPublished(nextSequence);
+            this.thread = new Thread(this, "pipeline-shard-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            nextSequence = ring.consumed() + 1;
+            while (running) {
+                try {
+                    ring.waitStrategy().waitFor(ready);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                long depth = ring.depth();
+                if (depth > maxDepth)
+                    maxDepth = depth;
+
+                if (!ring.isPublished(nextSequence))
+                    continue;
+                // Conflating drains the whole backlog: slots are released before the slow path runs
+                int maxBatch = conflating != null ? ring.capacity() : MAX_BATCH;
+                long last = nextSequence;
+                while (last - nextSequence < maxBatch - 1 && ring.isPublished(last + 1))
+                    last++;
+
+                if (conflating != null) {
+                    conflate(last);
+                    continue;
+                }
+
+                for (long sequence = nextSequence; sequence <= last; sequence++) {
+                    RateEvent event = ring.get(sequence);
+                    try {
+                        downstream.onRateUpdate(event.subscriberId, event.platform, event.rateName, event.fields);
+                    } catch (RuntimeException e) {
+                        logger.error("[RatePipeline] Error processing rate={} on shard={}", event.rateName, index, e);
+                    }
+                    event.clear();
+                }
+                ring.release(last);
+                nextSequence = last + 1;
+            }
+        }
+
+        private void conflate(long last) {
+            long replaced = 0;
+            for (long sequence = nextSequence; sequence <= last; sequence++) {
+                RateEvent event = ring.get(sequence);
+                try {
+                    conflating.onRawTick(event.subscriberId, event.platform, event.rateName, event.fields);
+                } catch (RuntimeException e) {
+                    logger.error("[RatePipeline] Error publishing raw rate={} on shard={}", event.rateName, index, e);
+                }
+
+                LatestTick tick = latest.computeIfAbsent(event.subscriberId, k -> new HashMap<>())
+                        .computeIfAbsent(event.rateName, k -> new LatestTick(event.subscriberId, event.rateName));
+                if (tick.pending) {
+                    replaced++;
+                } else {
+                    tick.pending = true;
+                    pending.add(tick);
+                }
+                tick.platform = event.platform;
+                tick.fields = event.fields;
+                event.clear();
+            }
+            ring.release(last);
+            nextSequence = last + 1;
+            if (replaced > 0)
+                conflated += replaced;
+
+            for (int i = 0; i < pending.size(); i++) {
+                LatestTick tick = pending.get(i);
+                try {
+                    conflating.onLatestTick(tick.subscriberId, tick.platform, tick.rateName, tick.fields);
+                } catch (RuntimeException e) {
+                    logger.error("[RatePipeline] Error processing rate={} on shard={}", tick.rateName, index, e);
+                }
+                tick.pending = false;
+                tick.fields = null;
+            }
+            pending.clear();
+        }
+    }
+
+    private static final class LatestTick {
+        final String subscriberId;
+        final String rateName;
+        String platform;
+        RateFields fields;
+        boolean pending;
+
+        LatestTick(String subscriberId, String rateName) {
+            this.subscriberId = subscriberId;
+            this.rateName = rateName;
+        }
+    }
+}
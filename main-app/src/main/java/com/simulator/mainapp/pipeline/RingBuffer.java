@@ -0,0 +1,98 @@
+package com.simulator.mainapp.pipeline;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated {@link RateEvent}s.
+ * <p>
+ * Producers claim a sequence with one atomic increment, fill the slot and publish it by writing the
+ * sequence's lap number into {@code published}. The consumer reads slots in sequence order and moves
+ * {@code consumed} forward once a batch is done, which frees the slots for the next lap. When the ring is
+ * full, producers wait for the consumer; nothing is dropped.
+ */
+final class RingBuffer {
+
+    private final RateEvent[] entries;
+    private final int mask;
+    private final int shift;
+    private final AtomicIntegerArray published;
+    private final WaitStrategy waitStrategy;
+
+    // Highest claimed sequence
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // Highest sequence the consumer has finished with
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final AtomicLong producerWaits = new AtomicLong();
+
+    RingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        this.entries = new RateEvent[capacity];
+        for (int i = 0; i < capacity; i++)
+            entries[i] = new RateEvent();
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.published = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            published.set(i, -1);
+        this.waitStrategy = waitStrategy;
+    }
+
+    /** Claims the next slot, waiting while the ring is full. */
+    long next() {
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > consumed.get()) {
+            producerWaits.incrementAndGet();
+            int spins = 0;
+            while (wrapPoint > consumed.get()) {
+                if (spins++ < 100)
+                    Thread.onSpinWait();
+                else
+                    LockSupport.parkNanos(1000);
+            }
+        }
+        return sequence;
+    }
+
+    RateEvent get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        // Volatile write: orders the event fields before it and the waiter check in signalAll after it
+        published.set((int) sequence & mask, (int) (sequence >>> shift));
+        waitStrategy.signalAll();
+    }
+
+    boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    void release(long sequence) {
+        consumed.lazySet(sequence);
+    }
+
+    long consumed() {
+        return consumed.get();
+    }
+
+    WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /** Claimed but not yet consumed events. */
+    long depth() {
+        return Math.max(0, cursor.get() - consumed.get());
+    }
+
+    long producerWaits() {
+        return producerWaits.get();
+    }
+}
@@ -0,0 +1,134 @@
+package com.simulator.mainapp.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a shard worker waits for the next event. Trades CPU for wake-up latency:
+ * busy-spin &lt; yielding &lt; sleeping &lt; blocking.
+ */
+public interface WaitStrategy {
+
+    /** Returns once {@code ready} is true. */
+    void waitFor(BooleanSupplier ready) throws InterruptedException;
+
+    /** Called by producers after publishing. */
+    void signalAll();
+
+    static WaitStrategy fromName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "busy-spin":
+                return new BusySpin();
+            case "yielding":
+                return new Yielding();
+            case "sleeping":
+                return new Sleeping();
+            case "blocking":
+                return new Blocking();
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        }
+    }
+
+    // Lowest latency, burns a full core per shard
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public void waitFor(BooleanSupplier ready) {
+            while (!ready.getAsBoolean())
+                Thread.onSpinWait();
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        private static final int SPINS = 100;
+
+        @Override
+        public void waitFor(BooleanSupplier ready) {
+            int counter = SPINS;
+            while (!ready.getAsBoolean()) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    // Spins, yields, then parks briefly; low CPU when idle at the cost of up to ~100us wake-up
+    final class Sleeping implements WaitStrategy {
+        private static final int SPINS = 100;
+        private static final int YIELDS = 100;
+        private static final long PARK_NANOS = 100_000;
+
+        @Override
+        public void waitFor(BooleanSupplier ready) throws InterruptedException {
+            int counter = SPINS + YIELDS;
+            while (!ready.getAsBoolean()) {
+                if (counter > YIELDS) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                }
+            }
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    // Parks on a condition; producers only take the lock when a worker is actually waiting
+    final class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private volatile int waiters;
+
+        @Override
+        public void waitFor(BooleanSupplier ready) throws InterruptedException {
+            if (ready.getAsBoolean())
+                return;
+            lock.lock();
+            try {
+                waiters++;
+                while (!ready.getAsBoolean()) {
+                    // Timed as a safety net; a publish normally signals well before this
+                    published.await(10, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                waiters--;
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters == 0)
+                return;
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
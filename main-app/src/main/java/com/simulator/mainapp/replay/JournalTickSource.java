@@ -0,0 +1,38 @@
+package com.simulator.mainapp.replay;
+
+import com.simulator.mainapp.journal.JournalRecord;
+import com.simulator.mainapp.journal.TickJournalReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Replays a binary capture written by {@link com.simulator.mainapp.journal.TickJournal}.
+ */
+public class JournalTickSource implements TickSource {
+
+    private final TickJournalReader reader;
+    private final JournalRecord record = new JournalRecord();
+
+    public JournalTickSource(Path dir) throws IOException {
+        this.reader = new TickJournalReader(dir);
+    }
+
+    @Override
+    public boolean next(ReplayTick out) throws IOException {
+        if (!reader.next(record))
+            return false;
+        long micros = record.getEventMicros();
+        String timestamp = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                Math.floorMod(micros, 1_000_000L) * 1000L).toString();
+        out.set(record.getSource(), ReplayTick.platformOf(record.getRateName()), record.getRateName(),
+                record.getBid(), record.getAsk(), timestamp, micros);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+    }
+}
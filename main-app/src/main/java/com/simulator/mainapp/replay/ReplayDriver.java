@@ -0,0 +1,180 @@
+package com.simulator.mainapp.replay;
+
+import com.simulator.common.RateFields;
+import com.simulator.common.RateListener;
+import com.simulator.mainapp.RatePublisher;
+import com.simulator.mainapp.RateStore;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives recorded ticks through {@link RateListener#onRateUpdate} on the calling thread and measures every call.
+ * <p>
+ * Pacing follows {@link Mode}: {@code MAX} sends the next tick as soon as the previous call returns,
+ * {@code ORIGINAL} keeps the recorded gaps between event times and {@code SCALED} divides them by a speed
+ * factor. Ticks whose target time has already passed are sent at once and the delay is reported as lag.
+ * <p>
+ * The per-stage times come from the sinks returned by {@link #timed(RatePublisher)} and {@link #timed(RateStore)},
+ * which must be the ones handed to the {@code Coordinator}: raw publish, store (Redis) and calculated publish
+ * are measured inside the call, and the rest of the call (formula evaluation, history, logging) is reported
+ * as {@code calculate}.
+ */
+public class ReplayDriver {
+
+    public enum Mode {
+        MAX, ORIGINAL, SCALED
+    }
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Mode mode;
+    private final double speed;
+    private final long warmup;
+
+    // Nanosaniye; LatencyTracker ile aynı çözünürlük (2 anlamlı basamak), en büyük değere göre büyür
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram calculate = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram rawPublish = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram store = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram calcPublish = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram lag = new Histogram(SIGNIFICANT_DIGITS);
+
+    // Şu anki tick için sink'lerde geçen süreler
+    private long rawNanos;
+    private long storeNanos;
+    private long calcNanos;
+    private long calculated;
+
+    private long ticks;
+    private long measuredNanos;
+
+    public ReplayDriver(Mode mode, double speed, long warmup) {
+        if (mode == Mode.SCALED && !(speed > 0))
+            throw new IllegalArgumentException("Scaled replay needs a positive speed: " + speed);
+        this.mode = mode;
+        this.speed = mode == Mode.SCALED ? speed : 1.0;
+        this.warmup = Math.max(0, warmup);
+    }
+
+    /** Wraps the publisher so its calls are timed as the raw / calculated publish stages. */
+    public RatePublisher timed(RatePublisher delegate) {
+        return new RatePublisher() {
+            @Override
+            public void sendRaw(String subscriberId, String rateName, RateFields fields) {
+                long start = System.nanoTime();
+                delegate.sendRaw(subscriberId, rateName, fields);
+                rawNanos += System.nanoTime() - start;
+            }
+
+            @Override
+            public void sendCalculated(String subscriberId, String rateName, RateFields fields) {
+                long start = System.nanoTime();
+                delegate.sendCalculated(subscriberId, rateName, fields);
+                calcNanos += System.nanoTime() - start;
+                calculated++;
+            }
+        };
+    }
+
+    /** Wraps the store so its calls are timed as the store stage. */
+    public RateStore timed(RateStore delegate) {
+        return (subscriberId, rateName, raw, calculatedRates) -> {
+            long start = System.nanoTime();
+            delegate.saveRates(subscriberId, rateName, raw, calculatedRates);
+            storeNanos += System.nanoTime() - start;
+        };
+    }
+
+    /** Replays every tick of the source once; can be called again for another pass. */
+    public void run(TickSource source, RateListener listener) throws IOException {
+        ReplayTick tick = new ReplayTick();
+        boolean paced = mode != Mode.MAX;
+        long baseEvent = 0;
+        long baseNanos = 0;
+        boolean first = true;
+        long passStart = System.nanoTime();
+        long measuredFrom = ticks < warmup ? -1 : passStart;
+
+        while (source.next(tick)) {
+            if (paced) {
+                if (first) {
+                    baseEvent = tick.eventMicros;
+                    baseNanos = System.nanoTime();
+                    first = false;
+                }
+                long target = baseNanos + (long) ((tick.eventMicros - baseEvent) * 1000.0 / speed);
+                long late = waitUntil(target);
+                if (ticks >= warmup)
+                    record(lag, late);
+            }
+
+            RateFields fields = new RateFields(tick.bid, tick.ask, tick.timestamp);
+            rawNanos = storeNanos = calcNanos = 0;
+            long start = System.nanoTime();
+            listener.onRateUpdate(tick.subscriberId, tick.platform, tick.rateName, fields);
+            long elapsed = System.nanoTime() - start;
+
+            if (ticks == warmup)
+                measuredFrom = start;
+            if (ticks >= warmup) {
+                record(total, elapsed);
+                record(rawPublish, rawNanos);
+                record(store, storeNanos);
+                if (calcNanos > 0)
+                    record(calcPublish, calcNanos);
+                record(calculate, elapsed - rawNanos - storeNanos - calcNanos);
+            }
+            ticks++;
+        }
+        if (measuredFrom >= 0)
+            measuredNanos += System.nanoTime() - measuredFrom;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    /** Prints throughput and the latency of every stage. */
+    public void report(PrintStream out) {
+        long measured = total.getTotalCount();
+        double seconds = measuredNanos / 1e9;
+        out.printf("Replay mode=%s speed=%s ticks=%d measured=%d (warmup %d) time=%.3fs%n",
+                mode, mode == Mode.SCALED ? speed : "-", ticks, measured, Math.min(warmup, ticks), seconds);
+        if (measured == 0)
+            return;
+        out.printf("Throughput: %.0f ticks/s, %d calculated rates published%n", measured / seconds, calculated);
+        out.printf("%-13s %10s %10s %10s %10s %10s %10s %10s%n",
+                "stage (us)", "count", "mean", "p50", "p90", "p99", "p99.9", "max");
+        String[] names = {"total", "calculate", "raw publish", "store", "calc publish", "pacing lag"};
+        Histogram[] stages = {total, calculate, rawPublish, store, calcPublish, lag};
+        for (int i = 0; i < stages.length; i++) {
+            Histogram h = stages[i];
+            if (h.getTotalCount() == 0)
+                continue;
+            out.printf("%-13s %10d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n", names[i], h.getTotalCount(),
+                    h.getMean() / 1000.0, h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+    }
+
+    // HdrHistogram negatif değer kabul etmez; saat geri giderse 0 kaydedilir
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.max(0, nanos));
+    }
+
+    // Hedef zamana kadar bekler; hedef geçmişse ne kadar geç kalındığını döner
+    private static long waitUntil(long target) {
+        long remaining;
+        while ((remaining = target - System.nanoTime()) > 0) {
+            if (remaining > 200_000)
+                LockSupport.parkNanos(remaining - 100_000);
+            else
+                Thread.onSpinWait();
+        }
+        return -remaining;
+    }
+}
@@ -0,0 +1,112 @@
+package com.simulator.mainapp.replay;
+
+import com.simulator.mainapp.Coordinator;
+import com.simulator.mainapp.KafkaPublisher;
+import com.simulator.mainapp.PF1RecordingReader;
+import com.simulator.mainapp.RatePublisher;
+import com.simulator.mainapp.RateStore;
+import com.simulator.mainapp.RedisClient;
+import com.simulator.mainapp.history.TickHistory;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Replays recorded ticks through a {@link Coordinator} and prints throughput and per-stage latency.
+ * <pre>
+ * --input &lt;path&gt;         PF1 line file, or a tick journal directory (required)
+ * --mode max|original|scaled   pacing (default max)
+ * --speed &lt;x&gt;            speed factor for scaled mode, e.g. 10
+ * --repeat &lt;n&gt;           replay the input n times (default 1)
+ * --warmup &lt;n&gt;           ticks excluded from the statistics (default 0)
+ * --subscriber &lt;id&gt;      subscriber id for PF1 line files (default replay)
+ * --platform &lt;name&gt;      platform name for PF1 line files (default pf1)
+ * --sinks none|live        none: no Redis/Kafka; live: RedisClient/KafkaPublisher from --config (default none)
+ * --config &lt;file&gt;        config.properties for live sinks and history.* (optional)
+ * </pre>
+ * Formulas are loaded as in the application ({@code RATE_FORMULAS_PATH}, working directory or classpath).
+ */
+public class ReplayMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String input = options.get("input");
+        if (input == null) {
+            usage("--input is required");
+            System.exit(2);
+        }
+
+        ReplayDriver.Mode mode = ReplayDriver.Mode.valueOf(options.getOrDefault("mode", "max").toUpperCase());
+        double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "0"));
+        String subscriber = options.getOrDefault("subscriber", "replay");
+        String platform = options.getOrDefault("platform", "pf1");
+        boolean live = "live".equalsIgnoreCase(options.getOrDefault("sinks", "none"));
+
+        Properties props = new Properties();
+        if (options.containsKey("config")) {
+            try (InputStream in = new FileInputStream(options.get("config"))) {
+                props.load(in);
+            }
+        }
+
+        RedisClient redis = null;
+        KafkaPublisher kafka = null;
+        RateStore store = RateStore.NONE;
+        RatePublisher publisher = RatePublisher.NONE;
+        if (live) {
+            redis = RedisClient.fromProperties(props.getProperty("redis.host", "localhost"),
+                    Integer.parseInt(props.getProperty("redis.port", "6379").trim()), props);
+            kafka = KafkaPublisher.fromProperties(props.getProperty("kafka.bootstrap.servers", "localhost:9092"), props);
+            store = redis;
+            publisher = kafka;
+        }
+        TickHistory history = Boolean.parseBoolean(props.getProperty("history.enabled", "false"))
+                ? TickHistory.fromProperties(props) : null;
+
+        ReplayDriver driver = new ReplayDriver(mode, speed, warmup);
+        Coordinator coordinator = new Coordinator(driver.timed(store), driver.timed(publisher), history, null);
+
+        Path path = Paths.get(input);
+        try {
+            for (int pass = 0; pass < repeat; pass++) {
+                try (TickSource source = Files.isDirectory(path)
+                        ? new JournalTickSource(path)
+                        : new PF1RecordingReader(path, subscriber, platform)) {
+                    driver.run(source, coordinator);
+                }
+            }
+        } finally {
+            if (kafka != null)
+                kafka.close();
+            if (redis != null)
+                redis.close();
+        }
+        driver.report(System.out);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                usage("Unexpected argument: " + args[i]);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: ReplayMain --input <pf1-file|journal-dir> [--mode max|original|scaled] [--speed x]"
+                + " [--repeat n] [--warmup n] [--subscriber id] [--platform name] [--sinks none|live] [--config file]");
+    }
+}
@@ -0,0 +1,62 @@
+package com.simulator.mainapp.replay;
+
+/**
+ * One recorded tick, refilled by a {@link TickSource} on every {@link TickSource#next} call.
+ */
+public final class ReplayTick {
+
+    String subscriberId;
+    String platform;
+    String rateName;
+    double bid;
+    double ask;
+    String timestamp;
+    long eventMicros;
+
+    public void set(String subscriberId, String platform, String rateName, double bid, double ask,
+                    String timestamp, long eventMicros) {
+        this.subscriberId = subscriberId;
+        this.platform = platform;
+        this.rateName = rateName;
+        this.bid = bid;
+        this.ask = ask;
+        this.timestamp = timestamp;
+        this.eventMicros = eventMicros;
+    }
+
+    public String getSubscriberId() {
+        return subscriberId;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    public String getRateName() {
+        return rateName;
+    }
+
+    public double getBid() {
+        return bid;
+    }
+
+    public double getAsk() {
+        return ask;
+    }
+
+    /** Timestamp as the collectors pass it to the listener (ISO string). */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    /** Timestamp in epoch microseconds, used for pacing. */
+    public long getEventMicros() {
+        return eventMicros;
+    }
+
+    // PF1_USDTRY -> pf1, config.properties'teki subscriber.N.platform ile aynı biçim
+    static String platformOf(String rateName) {
+        int sep = rateName.indexOf('_');
+        return sep > 0 ? rateName.substring(0, sep).toLowerCase() : "";
+    }
+}
@@ -0,0 +1,13 @@
+package com.simulator.mainapp.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Recorded ticks to replay, in recording order.
+ */
+public interface TickSource extends Closeable {
+
+    /** Fills {@code out} with the next tick; returns false at the end of the recording. */
+    boolean next(ReplayTick out) throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.simulator.mainapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PF1TickDecoderTest {
+
+    private static final String LINE = "PF1_USDTRY|22:number:40.5465|25:number:40.5483|5:timestamp:2025-08-21T18:38:18.049";
+
+    private final PF1TickDecoder decoder = new PF1TickDecoder();
+    private final PF1Tick tick = new PF1Tick();
+
+    @Test
+    void decodesACompleteLine() {
+        ByteBuffer in = ByteBuffer.wrap(ascii(LINE + "\r\n"));
+
+        assertEquals(PF1TickDecoder.TICK, decoder.decode(in, tick));
+        assertEquals("PF1_USDTRY", tick.symbol());
+        assertEquals(40.5465, tick.bid());
+        assertEquals(40.5483, tick.ask());
+        assertEquals("2025-08-21T18:38:18.049", tick.timestamp());
+        assertEquals(PF1TickDecoder.NEED_MORE, decoder.decode(in, tick));
+    }
+
+    @Test
+    void lineSplitAtEveryByteIsDecodedOnceComplete() {
+        byte[] bytes = ascii(LINE + "\n" + LINE.replace("40.5465", "40.6") + "\n");
+        // Collector'ın okuma döngüsü gibi: yaz, flip, çöz, compact
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        List<Double> bids = new ArrayList<>();
+        for (byte b : bytes) {
+            buffer.put(b);
+            buffer.flip();
+            int result;
+            while ((result = decoder.decode(buffer, tick)) != PF1TickDecoder.NEED_MORE) {
+                assertEquals(PF1TickDecoder.TICK, result);
+                bids.add(tick.bid());
+            }
+            buffer.compact();
+        }
+        assertEquals(List.of(40.5465, 40.6), bids);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void decodesFromABufferWithAnArrayOffset() {
+        ByteBuffer in = ByteBuffer.wrap(ascii("xx" + LINE + "\n"));
+        in.position(2);
+        assertEquals(PF1TickDecoder.TICK, decoder.decode(in.slice(), tick));
+        assertEquals(40.5483, tick.ask());
+    }
+
+    @Test
+    void symbolsAreInterned() {
+        decoder.decode(ByteBuffer.wrap(ascii(LINE + "\n")), tick);
+        String first = tick.symbol();
+        decoder.decode(ByteBuffer.wrap(ascii(LINE + "\n")), tick);
+        assertSame(first, tick.symbol());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "40,5465;          40.5465",
+            "40.5465;          40.5465",
+            "-0,25;            -0.25",
+            "+3;               3",
+            "7,;               7",
+            ",5;               0.5",
+            "1e2;              100",
+            "12345678901234567890,5;  12345678901234567890.5"
+    })
+    void decimalCommaAndDotAreAccepted(String text, double expected) {
+        byte[] bytes = ascii(text);
+        assertEquals(expected, PF1TickDecoder.parseDecimal(bytes, 0, bytes.length));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", "abc", "1.2.3", "1,2,3"})
+    void malformedDecimalIsNaN(String text) {
+        byte[] bytes = ascii(text);
+        assertTrue(Double.isNaN(PF1TickDecoder.parseDecimal(bytes, 0, bytes.length)));
+    }
+
+    @Test
+    void decimalCommaInALine() {
+        String line = "PF1_EURTRY|22:number:37,125|25:number:37,25|5:timestamp:2025-08-21T18:38:18.049\n";
+        assertEquals(PF1TickDecoder.TICK, decoder.decode(ByteBuffer.wrap(ascii(line)), tick));
+        assertEquals(37.125, tick.bid());
+        assertEquals(37.25, tick.ask());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Subscribed to PF1_USDTRY", "Unsubscribed from PF1_USDTRY", "ERROR|Invalid rate"})
+    void controlMessagesAreNotTicks(String line) {
+        assertEquals(PF1TickDecoder.CONTROL, decoder.decode(ByteBuffer.wrap(ascii(line + "\r\n")), tick));
+        assertEquals(line, tick.controlMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "PF1_USDTRY",
+            "|22:number:1|25:number:2",
+            "PF1_USDTRY|22:number:1",
+            "PF1_USDTRY|22:number:x|25:number:2",
+            "PF1_USDTRY|22number1|25:number:2",
+            "PF1_USDTRY|xx:number:1|25:number:2"
+    })
+    void invalidLinesAreReportedAndSkipped(String line) {
+        ByteBuffer in = ByteBuffer.wrap(ascii(line + "\n" + LINE + "\n"));
+        assertEquals(PF1TickDecoder.INVALID, decoder.decode(in, tick));
+        assertEquals(PF1TickDecoder.TICK, decoder.decode(in, tick));
+        assertEquals("PF1_USDTRY", tick.symbol());
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
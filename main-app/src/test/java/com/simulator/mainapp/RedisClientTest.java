@@ -0,0 +1,188 @@
+package com.simulator.mainapp;
+
+import com.simulator.common.RateFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Port 1'de Redis yok: flusher her denemede hata alıp bekler, yazımlar birikir
+class RedisClientTest {
+
+    private RedisClient redis;
+    private FakeRedis fake;
+
+    @AfterEach
+    void close() throws IOException {
+        if (redis != null)
+            redis.close();
+        if (fake != null)
+            fake.close();
+    }
+
+    @Test
+    void writesToTheSameRateCollapseWhileRedisIsDown() {
+        redis = new RedisClient("localhost", 1, RedisClient.Layout.HASH, 1, 256, 200, 4, 0);
+        RateFields raw = new RateFields(34.10, 34.20, "2024-01-01T00:00:00.000Z");
+        Map<String, RateFields> calc = Map.of("TRYUSD", new RateFields(0.029, 0.030, "2024-01-01T00:00:00.000Z"));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++)
+            redis.saveRates("sub1", "PF1_USDTRY", raw, calc);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 1000, "saveRates blocked for " + elapsedMs + " ms");
+        assertTrue(redis.queueDepth() <= 1, "queue depth " + redis.queueDepth());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        redis = new RedisClient("localhost", 1, RedisClient.Layout.KEYS, 1, 256, 200, 4, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++)
+            redis.set("raw:sub1:PF1_RATE" + i, "value");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Eski sürüm her düşen yazımda 100 ms bekliyordu
+        assertTrue(elapsedMs < 1000, "set blocked for " + elapsedMs + " ms");
+        assertTrue(redis.queueDepth() <= 4, "queue depth " + redis.queueDepth());
+    }
+
+    @Test
+    void sharedCalcFieldKeepsTheNewestValueAcrossRates() throws Exception {
+        fake = new FakeRedis();
+        // 1 s flush aralığı: üç tick de flusher batch'i toplarken bekleyen yazıma eklenir
+        redis = new RedisClient("localhost", fake.port(), RedisClient.Layout.HASH, 1, 256, 1_000_000, 16, 0);
+        String ts = "2024-01-01T00:00:00.000Z";
+
+        redis.saveRates("sub1", "PF1_USDTRY", new RateFields(34.10, 34.20, ts),
+                Map.of("EURTRY", new RateFields(37.00, 37.10, ts)));
+        redis.saveRates("sub1", "PF1_EURUSD", new RateFields(1.05, 1.06, ts),
+                Map.of("EURTRY", new RateFields(37.10, 37.20, ts)));
+        redis.saveRates("sub1", "PF1_USDTRY", new RateFields(34.30, 34.40, ts),
+                Map.of("EURTRY", new RateFields(37.30, 37.40, ts)));
+
+        assertTrue(fake.evals.await(5, TimeUnit.SECONDS));
+        Map<String, Map<String, String>> hashes = fake.apply();
+        assertEquals(Map.of("PF1_USDTRY", "34.3|34.4|" + ts, "PF1_EURUSD", "1.05|1.06|" + ts), hashes.get("raw:sub1"));
+        assertEquals(Map.of("EURTRY", "37.3|37.4|" + ts), hashes.get("calc:sub1"));
+    }
+
+    // EVALSHA çağrılarını kaydeden en küçük RESP sunucusu; script yerine argümanları testte uygular
+    private static final class FakeRedis implements AutoCloseable {
+        final ServerSocket server = new ServerSocket(0);
+        final List<List<String>> scripts = new CopyOnWriteArrayList<>();
+        final CountDownLatch evals = new CountDownLatch(1);
+
+        FakeRedis() throws IOException {
+            Thread t = new Thread(this::serve, "fake-redis");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void serve() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread t = new Thread(() -> handle(socket), "fake-redis-conn");
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+                 OutputStream out = socket.getOutputStream()) {
+                while (true) {
+                    List<String> command = readCommand(in);
+                    if (command == null)
+                        return;
+                    String name = command.get(0).toUpperCase();
+                    if (name.equals("PING")) {
+                        out.write("+PONG\r\n".getBytes(StandardCharsets.UTF_8));
+                    } else if (name.equals("SCRIPT")) {
+                        out.write("$3\r\nsha\r\n".getBytes(StandardCharsets.UTF_8));
+                    } else if (name.equals("EVALSHA")) {
+                        scripts.add(command.subList(3, command.size()));
+                        out.write(":1\r\n".getBytes(StandardCharsets.UTF_8));
+                        evals.countDown();
+                    } else {
+                        out.write("+OK\r\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // bağlantı kapandı
+            }
+        }
+
+        // *<n> ardından n tane $<uzunluk> bulk string
+        private static List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null)
+                return null;
+            int count = Integer.parseInt(header.substring(1));
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                args.add(new String(in.readNBytes(length), StandardCharsets.UTF_8));
+                readLine(in);
+            }
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0)
+                    return null;
+                if (c != '\r')
+                    sb.append((char) c);
+            }
+            return sb.toString();
+        }
+
+        // KEYS[1], KEYS[2], raw alan sayısı, raw çiftleri, calc çiftleri; geliş sırasıyla HSET
+        Map<String, Map<String, String>> apply() {
+            Map<String, Map<String, String>> hashes = new HashMap<>();
+            for (List<String> args : scripts) {
+                int rawEnd = 3 + 2 * Integer.parseInt(args.get(2));
+                for (int i = 3; i < args.size(); i += 2) {
+                    String key = i < rawEnd ? args.get(0) : args.get(1);
+                    hashes.computeIfAbsent(key, k -> new HashMap<>()).put(args.get(i), args.get(i + 1));
+                }
+            }
+            return hashes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.simulator.mainapp.formula;
+
+import com.simulator.common.RateFields;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// rate-formulas.json (classpath): direct, inverse ve otomatik anchor'lı cross grupları
+class DerivedRateEvaluatorTest {
+
+    private static final double EPS = 1e-12;
+
+    private final DerivedRateEvaluator evaluator = new DerivedRateEvaluator();
+
+    @Test
+    void quotedPairIsPublishedAtItsOwnQuote() {
+        evaluator.update("PF1_USDTRY", 34.10, 34.20);
+        evaluator.update("PF1_EURTRY", 37.00, 37.10);
+        Map<String, RateFields> afterCross = evaluator.update("PF2_EURUSD", 1.05, 1.06);
+
+        // EURUSD de gelince USDTRY için EURTRY/EURUSD cross'u bağlanır; yayınlanan değer yine kotasyondur
+        assertQuote(afterCross.get("USDTRY"), 34.10, 34.20);
+
+        Map<String, RateFields> afterTick = evaluator.update("PF1_USDTRY", 34.15, 34.25);
+        assertQuote(afterTick.get("USDTRY"), 34.15, 34.25);
+        assertQuote(evaluator.snapshot().get("EURUSD"), 1.05, 1.06);
+        assertQuote(evaluator.snapshot().get("EURTRY"), 37.00, 37.10);
+    }
+
+    @Test
+    void quotedInverseWinsOverComputedInverse() {
+        evaluator.update("PF1_USDTRY", 34.10, 34.20);
+        Map<String, RateFields> result = evaluator.update("PF2_TRYUSD", 0.0290, 0.0295);
+
+        assertQuote(result.get("TRYUSD"), 0.0290, 0.0295);
+        assertQuote(result.get("USDTRY"), 34.10, 34.20);
+    }
+
+    @Test
+    void inverseIsCalculatedWhenOnlyOneSideIsQuoted() {
+        Map<String, RateFields> result = evaluator.update("PF1_USDTRY", 34.00, 35.00);
+
+        RateFields inverse = result.get("TRYUSD");
+        assertEquals(1 / 35.00, inverse.getBid(), EPS);
+        assertEquals(1 / 34.00, inverse.getAsk(), EPS);
+    }
+
+    @Test
+    void crossIsUsedOnlyWhileTheDirectQuoteIsUnusable() {
+        evaluator.update("PF1_EURTRY", 37.00, 37.10);
+        evaluator.update("PF2_EURUSD", 1.05, 1.06);
+        Map<String, RateFields> invalid = evaluator.update("PF1_USDTRY", 0, 0);
+
+        RateFields cross = invalid.get("USDTRY");
+        assertEquals(37.00 / 1.06, cross.getBid(), EPS);
+        assertEquals(37.10 / 1.05, cross.getAsk(), EPS);
+
+        Map<String, RateFields> valid = evaluator.update("PF1_USDTRY", 34.10, 34.20);
+        assertQuote(valid.get("USDTRY"), 34.10, 34.20);
+    }
+
+    @Test
+    void unrelatedTickDoesNotRepublishOtherPairs() {
+        evaluator.update("PF1_USDTRY", 34.10, 34.20);
+        evaluator.update("PF1_GBPUSD", 1.25, 1.26);
+        Map<String, RateFields> result = evaluator.update("PF1_GBPUSD", 1.27, 1.28);
+
+        assertTrue(result.containsKey("GBPUSD"));
+        assertFalse(result.containsKey("USDTRY"));
+    }
+
+    private static void assertQuote(RateFields fields, double bid, double ask) {
+        assertEquals(bid, fields.getBid(), EPS);
+        assertEquals(ask, fields.getAsk(), EPS);
+    }
+}
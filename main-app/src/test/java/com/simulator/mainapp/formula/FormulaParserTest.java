@@ -0,0 +1,89 @@
+package com.simulator.mainapp.formula;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FormulaParserTest {
+
+    private static final double EPS = 1e-12;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "1 + 2 * 3;        7",
+            "(1 + 2) * 3;      9",
+            "8 - 4 - 2;        2",
+            "16 / 4 / 2;       2",
+            "2 * 3 / 4 * 2;    3",
+            "1 - 2 * 3 + 4;   -1",
+            "-2 * 3;          -6",
+            "2 - -3;           5",
+            "--4;              4",
+            "-(1 + 2) * .5;   -1.5",
+            "((((7))));        7"
+    })
+    void precedenceAndAssociativity(String formula, double expected) {
+        assertEquals(expected, FormulaParser.parse(formula).eval(null), EPS);
+    }
+
+    @Test
+    void treeShowsTheGrouping() {
+        assertEquals("(1.0 + (2.0 * 3.0))", FormulaParser.parse("1+2*3").toString());
+        assertEquals("((8.0 - 4.0) - 2.0)", FormulaParser.parse("8-4-2").toString());
+        assertEquals("(-2.0 * 3.0)", FormulaParser.parse("-2*3").toString());
+    }
+
+    @Test
+    void quoteReferences() {
+        assertEquals("(bid(USDTRY) / ask(EURUSD))", FormulaParser.parse("USDTRY_bid / EURUSD_ask").toString());
+        assertEquals("(mid(USDTRY) - spread(USDTRY))", FormulaParser.parse("mid( USDTRY ) - spread(USDTRY)").toString());
+        assertEquals("bid({base}{anchor})", FormulaParser.parse("{base}{anchor}_bid").toString());
+    }
+
+    @Test
+    void boundReferencesReadTheQuoteBook() {
+        QuoteBook book = new QuoteBook();
+        book.addRate("PF1_USDTRY");
+        book.update("PF1_USDTRY", 34.0, 35.0);
+
+        Expr expr = FormulaParser.parse("mid({base}TRY) * 2 + spread(USDTRY) - {base}TRY_bid / 2")
+                .bind(Map.of("base", "USD"), book);
+        assertEquals(34.5 * 2 + 1 - 17, expr.eval(book), EPS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "   ",
+            "1 +",
+            "* 3",
+            "(1 + 2",
+            "1 + 2)",
+            "1 2",
+            "1..2",
+            "USDTRY",
+            "USDTRY_mid",
+            "avg(USDTRY)",
+            "mid()",
+            "mid(USDTRY",
+            "USDTRY_bid $ 2"
+    })
+    void malformedFormulasAreRejected(String formula) {
+        assertThrows(IllegalArgumentException.class, () -> FormulaParser.parse(formula));
+    }
+
+    @Test
+    void errorNamesThePosition() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FormulaParser.parse("1 + * 2"));
+        assertTrue(e.getMessage().contains("at position 4"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> FormulaParser.parse(null));
+    }
+}
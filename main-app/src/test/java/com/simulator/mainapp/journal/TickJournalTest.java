@@ -0,0 +1,147 @@
+package com.simulator.mainapp.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickJournalTest {
+
+    // Segment başına üç kayıt
+    private static final long SEGMENT_BYTES = 3L * TickJournal.RECORD_SIZE;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsRoundTrip() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            journal.append("PF1_USDTRY", "sub1", 34.10, 34.20, 1_000, 1_100);
+            journal.append("PF2_EURUSD", "sub2", 1.05, 1.06, 2_000, 2_100);
+        }
+
+        try (TickJournalReader reader = new TickJournalReader(dir)) {
+            JournalRecord record = new JournalRecord();
+            assertTrue(reader.next(record));
+            assertEquals(0, record.getIndex());
+            assertEquals("PF1_USDTRY", record.getRateName());
+            assertEquals("sub1", record.getSource());
+            assertEquals(34.10, record.getBid());
+            assertEquals(34.20, record.getAsk());
+            assertEquals(1_000, record.getEventMicros());
+            assertEquals(1_100, record.getReceiveMicros());
+            assertTrue(reader.next(record));
+            assertEquals("PF2_EURUSD", record.getRateName());
+            assertEquals("sub2", record.getSource());
+            assertFalse(reader.next(record));
+        }
+    }
+
+    @Test
+    void segmentsRollAndAreReadInOrder() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 10; i++)
+                journal.append("PF1_USDTRY", "sub1", i, i, i, i);
+            assertEquals(10, journal.appendedCount());
+        }
+
+        assertEquals(List.of(0, 1, 2, 3), TickJournal.segmentIndexes(dir));
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0), bids());
+    }
+
+    @Test
+    void rollKeepsOnlyTheNewestSegments() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 2)) {
+            for (int i = 0; i < 10; i++)
+                journal.append("PF1_USDTRY", "sub1", i, i, i, i);
+        }
+
+        assertEquals(List.of(2, 3), TickJournal.segmentIndexes(dir));
+        assertEquals(List.of(6.0, 7.0, 8.0, 9.0), bids());
+    }
+
+    @Test
+    void restartOverwritesAPartialRecord() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 4; i++)
+                journal.append("PF1_USDTRY", "sub1", i, i, i, i);
+        }
+        // Çökme: beşinci kaydın alanları yazılmış, rate id'si (en son yazılan) yazılmamış
+        writePartialRecord(TickJournal.segmentPath(dir, 1), TickJournal.RECORD_SIZE);
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0), bids());
+
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            journal.append("PF1_USDTRY", "sub1", 4, 4, 4, 4);
+            journal.append("PF1_USDTRY", "sub1", 5, 5, 5, 5);
+            journal.append("PF1_USDTRY", "sub1", 6, 6, 6, 6);
+        }
+
+        assertEquals(List.of(0, 1, 2), TickJournal.segmentIndexes(dir));
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0), bids());
+    }
+
+    @Test
+    void restartOnAFullSegmentRollsToTheNextOne() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 6; i++)
+                journal.append("PF1_USDTRY", "sub1", i, i, i, i);
+        }
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0)) {
+            journal.append("PF1_USDTRY", "sub1", 6, 6, 6, 6);
+        }
+
+        assertEquals(List.of(0, 1, 2), TickJournal.segmentIndexes(dir));
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0), bids());
+    }
+
+    @Test
+    void readerFollowsALiveJournalAcrossSegments() throws IOException {
+        try (TickJournal journal = new TickJournal(dir, SEGMENT_BYTES, 0);
+             TickJournalReader reader = new TickJournalReader(dir)) {
+            JournalRecord record = new JournalRecord();
+            journal.append("PF1_USDTRY", "sub1", 0, 0, 0, 0);
+            assertTrue(reader.next(record));
+            assertFalse(reader.next(record));
+
+            for (int i = 1; i < 5; i++)
+                journal.append("PF1_EURTRY", "sub1", i, i, i, i);
+            List<Double> bids = new ArrayList<>();
+            while (reader.next(record))
+                bids.add(record.getBid());
+            assertEquals(List.of(1.0, 2.0, 3.0, 4.0), bids);
+            // Yeni isim okuyucunun sözlüğünde yoktu, tekrar yüklenmiş olmalı
+            assertEquals("PF1_EURTRY", record.getRateName());
+            assertEquals(1, reader.segmentIndex());
+        }
+    }
+
+    private List<Double> bids() throws IOException {
+        List<Double> bids = new ArrayList<>();
+        try (TickJournalReader reader = new TickJournalReader(dir)) {
+            JournalRecord record = new JournalRecord();
+            while (reader.next(record))
+                bids.add(record.getBid());
+        }
+        return bids;
+    }
+
+    private static void writePartialRecord(Path segment, int offset) throws IOException {
+        ByteBuffer fields = ByteBuffer.allocate(TickJournal.RECORD_SIZE - TickJournal.SOURCE_OFFSET)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        fields.putInt(1).putDouble(99).putDouble(99).putLong(99).putLong(99).flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(fields, offset + TickJournal.SOURCE_OFFSET);
+        }
+    }
+}
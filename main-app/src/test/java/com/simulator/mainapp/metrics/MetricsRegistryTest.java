@@ -0,0 +1,48 @@
+package com.simulator.mainapp.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void timerMaxSurvivesRepeatedScrapes() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("redis_flush_seconds", "Redis flush time", "mode", "mset").record(2_500_000_000L);
+
+        String first = registry.scrape();
+        String second = registry.scrape();
+
+        // İkinci scraper da aynı max'ı görmeli
+        assertTrue(first.contains("redis_flush_seconds_max{mode=\"mset\"} 2.5\n"), first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void timerMaxRollsWithTheWindow() {
+        MetricsRegistry.Timer timer = new MetricsRegistry.Timer();
+        long start = System.nanoTime();
+        timer.record(7);
+
+        long window = MetricsRegistry.MAX_WINDOW_NANOS;
+        assertEquals(7, timer.maxNanos(start + window));
+        timer.record(3);
+        assertEquals(7, timer.maxNanos(start + window + 1));
+        assertEquals(3, timer.maxNanos(start + 2 * window + 1));
+        assertEquals(0, timer.maxNanos(start + 3 * window + 2));
+    }
+
+    @Test
+    void includedTextIsAppendedToTheScrape() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("ticks_received_total", "Ticks", "platform", "pf1").increment(3);
+        registry.include(() -> "# TYPE tick_latency_max_microseconds gauge\ntick_latency_max_microseconds 42\n");
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("ticks_received_total{platform=\"pf1\"} 3\n"), text);
+        assertTrue(text.endsWith("tick_latency_max_microseconds 42\n"), text);
+    }
+}
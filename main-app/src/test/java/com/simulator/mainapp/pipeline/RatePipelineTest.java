@@ -0,0 +1,120 @@
+package com.simulator.mainapp.pipeline;
+
+import com.simulator.common.RateFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatePipelineTest {
+
+    private RatePipeline pipeline;
+
+    @AfterEach
+    void close() {
+        if (pipeline != null)
+            pipeline.close();
+    }
+
+    @Test
+    void burstIsConflatedToTheLatestValuePerKey() throws Exception {
+        RecordingListener listener = new RecordingListener(3);
+        pipeline = new RatePipeline(listener, 1, 256, "blocking", true, 0);
+
+        pipeline.onRateUpdate("sub1", "PF1", "PF1_USDTRY", fields(0));
+        assertTrue(listener.entered.await(5, TimeUnit.SECONDS));
+
+        // Worker ilk tick'in yavaş yolunda beklerken gelen burst tek batch'te boşaltılır
+        for (int i = 1; i <= 100; i++)
+            pipeline.onRateUpdate("sub1", "PF1", "PF1_USDTRY", fields(i));
+        for (int i = 1; i <= 5; i++)
+            pipeline.onRateUpdate("sub1", "PF1", "PF1_EURTRY", fields(i));
+        listener.gate.countDown();
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("PF1_USDTRY=0", "PF1_USDTRY=100", "PF1_EURTRY=5"), listener.latest);
+        assertEquals(106, listener.raw.size());
+        assertEquals("PF1_USDTRY=100", listener.raw.get(100));
+        assertEquals(103, pipeline.conflatedCount());
+    }
+
+    @Test
+    void subscribersAreConflatedSeparately() throws Exception {
+        RecordingListener listener = new RecordingListener(3);
+        pipeline = new RatePipeline(listener, 1, 256, "blocking", true, 0);
+
+        pipeline.onRateUpdate("sub1", "PF1", "PF1_USDTRY", fields(0));
+        assertTrue(listener.entered.await(5, TimeUnit.SECONDS));
+        pipeline.onRateUpdate("sub1", "PF1", "PF1_USDTRY", fields(1));
+        pipeline.onRateUpdate("sub2", "PF1", "PF1_USDTRY", fields(2));
+        pipeline.onRateUpdate("sub1", "PF1", "PF1_USDTRY", fields(3));
+        listener.gate.countDown();
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("PF1_USDTRY=0", "PF1_USDTRY=3", "PF1_USDTRY=2"), listener.latest);
+        assertEquals(List.of("sub1", "sub1", "sub2"), listener.subscribers);
+        assertEquals(1, pipeline.conflatedCount());
+    }
+
+    private static RateFields fields(int value) {
+        return new RateFields(value, value + 1, "2024-01-01T00:00:00.000Z");
+    }
+
+    // İlk onLatestTick çağrısında gate açılana kadar bekler
+    private static final class RecordingListener implements ConflatingListener {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch done;
+        final List<String> raw = new CopyOnWriteArrayList<>();
+        final List<String> latest = new CopyOnWriteArrayList<>();
+        final List<String> subscribers = new CopyOnWriteArrayList<>();
+
+        RecordingListener(int expectedLatest) {
+            this.done = new CountDownLatch(expectedLatest);
+        }
+
+        @Override
+        public void onRawTick(String subscriberId, String platform, String rateName, RateFields fields) {
+            raw.add(rateName + "=" + (int) fields.getBid());
+        }
+
+        @Override
+        public void onLatestTick(String subscriberId, String platform, String rateName, RateFields fields) {
+            latest.add(rateName + "=" + (int) fields.getBid());
+            subscribers.add(subscriberId);
+            entered.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }
+
+        @Override
+        public void onConnect(String platform, boolean status) {
+        }
+
+        @Override
+        public void onDisconnect(String platform, boolean status) {
+        }
+
+        @Override
+        public void onRateAvailable(String subscriberId, String platform, String rateName, RateFields fields) {
+        }
+
+        @Override
+        public void onRateUpdate(String subscriberId, String platform, String rateName, RateFields fields) {
+        }
+
+        @Override
+        public void onRateStatus(String platform, String rateName, String status) {
+        }
+    }
+}
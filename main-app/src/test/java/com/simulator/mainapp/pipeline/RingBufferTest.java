@@ -0,0 +1,88 @@
+package com.simulator.mainapp.pipeline;
+
+import com.simulator.common.RateFields;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(6, new WaitStrategy.Yielding()));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(1, new WaitStrategy.Yielding()));
+    }
+
+    @Test
+    void slotIsPublishedOnlyForItsOwnLap() {
+        RingBuffer ring = new RingBuffer(4, new WaitStrategy.Yielding());
+        for (long sequence = 0; sequence < 4; sequence++) {
+            assertEquals(sequence, ring.next());
+            ring.publish(sequence);
+        }
+        // Sekans 4 ile 0 aynı slotu paylaşır; önceki turun yayını yeni tur için sayılmaz
+        assertTrue(ring.isPublished(0));
+        assertFalse(ring.isPublished(4));
+        assertEquals(4, ring.depth());
+    }
+
+    @Test
+    void manyProducersWrapAroundWithoutLossOrReordering() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        RingBuffer ring = new RingBuffer(8, new WaitStrategy.Yielding());
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String name = "P" + p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long sequence = ring.next();
+                    ring.get(sequence).set("sub", name, name, new RateFields(i, i, null));
+                    ring.publish(sequence);
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        start.countDown();
+        // Tek tüketici: sırayla okur, her olayı alınca slotu serbest bırakır
+        long total = (long) producers * perProducer;
+        for (long sequence = 0; sequence < total; sequence++) {
+            long s = sequence;
+            ring.waitStrategy().waitFor(() -> ring.isPublished(s));
+            RateEvent event = ring.get(sequence);
+            int producer = event.rateName.charAt(1) - '0';
+            int value = (int) event.fields.getBid();
+            assertEquals(lastSeen[producer] + 1, value, "producer " + producer + " out of order");
+            lastSeen[producer] = value;
+            event.clear();
+            ring.release(sequence);
+        }
+        for (Thread t : threads)
+            t.join(5000);
+
+        for (int p = 0; p < producers; p++)
+            assertEquals(perProducer - 1, lastSeen[p]);
+        assertEquals(0, ring.depth());
+        assertTrue(ring.producerWaits() > 0, "8 slots for 80k events must have made producers wait");
+    }
+}
@@ -2,11 +2,23 @@ package com.simulator.pf2simulator.controller;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/api/rates")
@@ -29,10 +41,88 @@ public class RateController {
             Map.entry("RUBTRY", new Double[]{0.5064, 0.5090})
     );
 
+    private final long streamIntervalMs;
+    private final ScheduledExecutorService streamScheduler;
+
+    public RateController(@Value("${pf2.stream.interval-ms:500}") long streamIntervalMs,
+                          @Value("${pf2.stream.threads:2}") int streamThreads) {
+        this.streamIntervalMs = streamIntervalMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.streamScheduler = Executors.newScheduledThreadPool(streamThreads, r -> {
+            Thread t = new Thread(r, "pf2-stream-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamScheduler.shutdownNow();
+    }
+
+    // SSE akışı: GET /api/rates/stream?names=PF2_USDTRY,PF2_EURTRY
+    // Every generated quote is pushed as a "rate" event until the client disconnects.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRates(@RequestParam("names") List<String> names) {
+        // Unsupported names are dropped once here instead of failing on every push
+        List<String> rateNames = names.stream()
+                .map(String::trim)
+                .filter(n -> !n.isEmpty() && !quote(n).containsKey("error"))
+                .toList();
+        logger.info("[PF2Controller] Stream opened for rates={}", rateNames);
+
+        // 0 -> no async timeout, the stream stays open until either side closes it
+        SseEmitter emitter = new SseEmitter(0L);
+        ScheduledFuture<?> task = streamScheduler.scheduleAtFixedRate(() -> {
+            try {
+                for (String rateName : rateNames) {
+                    Map<String, Object> quote = quote(rateName);
+                    if (!quote.containsKey("error")) {
+                        emitter.send(SseEmitter.event().name("rate").data(quote, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; completion callback cancels the task
+                logger.debug("[PF2Controller] Stream write failed for rates={}: {}", rateNames, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }, 0, streamIntervalMs, TimeUnit.MILLISECONDS);
+
+        emitter.onCompletion(() -> {
+            task.cancel(false);
+            logger.info("[PF2Controller] Stream closed for rates={}", rateNames);
+        });
+        emitter.onTimeout(() -> task.cancel(false));
+        emitter.onError(e -> task.cancel(false));
+        return emitter;
+    }
+
     @GetMapping("/{rateName}")
     public Map<String, Object> getRate(@PathVariable String rateName) {
         logger.info("[PF2Controller] Request received for rate={}", rateName);
+        return quote(rateName);
+    }
+
+    // Çoklu sorgu: GET /api/rates?names=PF2_USDTRY,PF2_EURTRY
+    // Only supported rates are returned; unsupported names are logged and skipped.
+    @GetMapping
+    public List<Map<String, Object>> getRates(@RequestParam("names") List<String> names) {
+        logger.info("[PF2Controller] Batch request received for {} rates", names.size());
+
+        List<Map<String, Object>> quotes = new ArrayList<>(names.size());
+        for (String name : names) {
+            String rateName = name.trim();
+            if (rateName.isEmpty())
+                continue;
+            Map<String, Object> quote = quote(rateName);
+            if (!quote.containsKey("error")) {
+                quotes.add(quote);
+            }
+        }
+        return quotes;
+    }
 
+    private Map<String, Object> quote(String rateName) {
         if (!rateName.startsWith("PF2_")) {
             logger.warn("[PF2Controller] Invalid rate request: {} (must start with PF2_)", rateName);
             return Map.of("error", "Rate name must start with PF2_");